@@ -0,0 +1,15 @@
+package org.example.playground;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/*
+ * Servidor WebFlux (Netty) con los patrones del playground como endpoints, ver web.PlaygroundRouter.
+ */
+@SpringBootApplication
+public class PlaygroundApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(PlaygroundApplication.class, args);
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.playground.backend;
+
+import org.example.playground.scheduler.VirtualThreadSchedulers;
+import org.example.playground.trace.TraceSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+final class DefaultSimulatedBackend implements SimulatedBackend {
+
+    private final LatencyMode mode;
+    private final LatencyModel latency;
+    private final TraceSink trace;
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    DefaultSimulatedBackend(LatencyMode mode, LatencyModel latency, TraceSink trace) {
+        this.mode = Objects.requireNonNull(mode, "mode");
+        this.latency = Objects.requireNonNull(latency, "latency");
+        this.trace = Objects.requireNonNull(trace, "trace");
+    }
+
+    @Override
+    public Mono<Integer> get(Integer key) {
+        return roundTrip(key, () -> key);
+    }
+
+    @Override
+    public Mono<Map<Integer, Integer>> getAll(Collection<Integer> keys) {
+        var batch = List.copyOf(keys);
+        return roundTrip(batch, () -> {
+            Map<Integer, Integer> result = new LinkedHashMap<>();
+            batch.forEach(key -> result.put(key, key));
+            return result;
+        });
+    }
+
+    @Override
+    public long roundTrips() {
+        return roundTrips.get();
+    }
+
+    private <T> Mono<T> roundTrip(Object request, Supplier<T> response) {
+        switch (mode) {
+            case BLOCKING:
+                return Mono.just("searching...")
+                        .map(r -> sleep(request, response));
+            case TIMER:
+                return Mono.defer(() -> Mono.delay(latency.next()))
+                        .doOnSubscribe(s -> {
+                            roundTrips.incrementAndGet();
+                            trace.trace("searching[%s]", request);
+                        })
+                        .map(tick -> {
+                            trace.trace("completed[%s]", request);
+                            return response.get();
+                        });
+            case BOUNDED_ELASTIC:
+                return Mono.fromCallable(() -> sleep(request, response))
+                        .subscribeOn(Schedulers.boundedElastic());
+            case VIRTUAL_THREAD:
+                return Mono.fromCallable(() -> sleep(request, response))
+                        .subscribeOn(VirtualThreadSchedulers.shared());
+            default:
+                throw new IllegalStateException("unknown mode " + mode);
+        }
+    }
+
+    private <T> T sleep(Object request, Supplier<T> response) {
+        roundTrips.incrementAndGet();
+        trace.trace("searching[%s]", request);
+        try {
+            Thread.sleep(latency.next().toMillis());
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        trace.trace("completed[%s]", request);
+        return response.get();
+    }
+}
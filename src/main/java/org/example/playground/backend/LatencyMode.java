@@ -0,0 +1,24 @@
+package org.example.playground.backend;
+
+/*
+ * Como simula el backend la espera de la "base de datos".
+ */
+public enum LatencyMode {
+    /*
+     * Thread.sleep en el hilo que se suscribe, el comportamiento original de getMonoInteger.
+     * Si el hilo es de Schedulers.parallel() lo deja bloqueado durante toda la llamada.
+     */
+    BLOCKING,
+    /*
+     * Mono.delay: no bloquea ningun hilo, la espera es un timer.
+     */
+    TIMER,
+    /*
+     * Thread.sleep, pero descargado en Schedulers.boundedElastic().
+     */
+    BOUNDED_ELASTIC,
+    /*
+     * Thread.sleep, pero descargado en un hilo virtual por tarea (VirtualThreadSchedulers).
+     */
+    VIRTUAL_THREAD
+}
@@ -0,0 +1,58 @@
+package org.example.playground.backend;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Random;
+
+/*
+ * Distribucion de la latencia de cada llamada al backend. Se muestrea una vez por llamada.
+ */
+@FunctionalInterface
+public interface LatencyModel {
+
+    Duration next();
+
+    /*
+     * Siempre la misma latencia, como el Thread.sleep(4000) original.
+     */
+    static LatencyModel fixed(Duration latency) {
+        Objects.requireNonNull(latency, "latency");
+        return () -> latency;
+    }
+
+    static LatencyModel uniform(Duration min, Duration max, long seed) {
+        var random = new Random(seed);
+        var minNanos = min.toNanos();
+        var range = max.toNanos() - minNanos;
+        if (range < 0) {
+            throw new IllegalArgumentException("max must be >= min");
+        }
+        return () -> {
+            synchronized (random) {
+                return Duration.ofNanos(minNanos + (long) (random.nextDouble() * range));
+            }
+        };
+    }
+
+    /*
+     * Cola larga: la mayoria de llamadas tardan poco mas que scale, pero unas pocas tardan muchisimo.
+     * Con shape 1.5 el p99 es ~21x scale; cuanto menor es shape, mas pesada es la cola.
+     * cap limita la cola para que ninguna llamada se quede colgada indefinidamente.
+     */
+    static LatencyModel pareto(Duration scale, double shape, Duration cap, long seed) {
+        if (shape <= 0) {
+            throw new IllegalArgumentException("shape must be > 0, was " + shape);
+        }
+        var random = new Random(seed);
+        var scaleNanos = scale.toNanos();
+        var capNanos = cap.toNanos();
+        return () -> {
+            double uniform;
+            synchronized (random) {
+                uniform = 1 - random.nextDouble();
+            }
+            var nanos = scaleNanos / Math.pow(uniform, 1 / shape);
+            return Duration.ofNanos((long) Math.min(capNanos, nanos));
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.playground.backend;
+
+import org.example.playground.trace.TraceSink;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/*
+ * Simulacion de la llamada asincrona a base de datos que hay detras de getMonoInteger.
+ * Devuelve el mismo entero que recibe despues de la latencia configurada (fija o con un LatencyModel).
+ */
+public interface SimulatedBackend {
+
+    Mono<Integer> get(Integer key);
+
+    /*
+     * Una sola ida y vuelta para todas las claves, con la misma latencia que get.
+     */
+    Mono<Map<Integer, Integer>> getAll(Collection<Integer> keys);
+
+    /*
+     * Numero de llamadas que han llegado a la "base de datos" (get o getAll).
+     */
+    long roundTrips();
+
+    static SimulatedBackend of(LatencyMode mode, Duration latency) {
+        return of(mode, latency, TraceSink.defaultSink());
+    }
+
+    static SimulatedBackend of(LatencyMode mode, Duration latency, TraceSink trace) {
+        return of(mode, LatencyModel.fixed(latency), trace);
+    }
+
+    static SimulatedBackend of(LatencyMode mode, LatencyModel latency) {
+        return of(mode, latency, TraceSink.defaultSink());
+    }
+
+    static SimulatedBackend of(LatencyMode mode, LatencyModel latency, TraceSink trace) {
+        return new DefaultSimulatedBackend(mode, latency, trace);
+    }
+
+    static SimulatedBackend blocking(Duration latency) {
+        return of(LatencyMode.BLOCKING, latency);
+    }
+
+    static SimulatedBackend timer(Duration latency) {
+        return of(LatencyMode.TIMER, latency);
+    }
+
+    static SimulatedBackend boundedElastic(Duration latency) {
+        return of(LatencyMode.BOUNDED_ELASTIC, latency);
+    }
+
+    static SimulatedBackend virtualThreads(Duration latency) {
+        return of(LatencyMode.VIRTUAL_THREAD, latency);
+    }
+}
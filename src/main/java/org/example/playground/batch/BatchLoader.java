@@ -0,0 +1,135 @@
+package org.example.playground.batch;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/*
+ * Agrupa las claves que piden los suscriptores concurrentes durante una ventana (tiempo o tamaño)
+ * y hace UNA sola llamada al backend por ventana, en lugar de una por elemento (el N+1 de
+ * Flux.flatMap(this::monoInteger)).
+ *
+ * - Cada load(key) devuelve su propio Mono, que recibe el valor de su clave cuando vuelve el lote.
+ * - Las claves repetidas dentro de la misma ventana se piden una sola vez.
+ * - Si el lote no trae una clave, el Mono de esa clave completa vacio.
+ * - Si el lote falla, el error llega a todos los Monos de ese lote, y solo a esos.
+ */
+public final class BatchLoader<K, V> {
+
+    private final Function<List<K>, Mono<Map<K, V>>> batchFunction;
+    private final int maxBatchSize;
+    private final Duration window;
+    private final Scheduler scheduler;
+    private final AtomicLong batches = new AtomicLong();
+
+    private final Object lock = new Object();
+    private Map<K, List<MonoSink<V>>> pending = new LinkedHashMap<>();
+    private Disposable scheduledFlush;
+
+    private BatchLoader(Function<List<K>, Mono<Map<K, V>>> batchFunction, int maxBatchSize, Duration window,
+                        Scheduler scheduler) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be >= 1, was " + maxBatchSize);
+        }
+        this.batchFunction = Objects.requireNonNull(batchFunction, "batchFunction");
+        this.maxBatchSize = maxBatchSize;
+        this.window = Objects.requireNonNull(window, "window");
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+    }
+
+    public static <K, V> BatchLoader<K, V> create(Function<List<K>, Mono<Map<K, V>>> batchFunction,
+                                                  int maxBatchSize, Duration window) {
+        return create(batchFunction, maxBatchSize, window, Schedulers.parallel());
+    }
+
+    public static <K, V> BatchLoader<K, V> create(Function<List<K>, Mono<Map<K, V>>> batchFunction,
+                                                  int maxBatchSize, Duration window, Scheduler scheduler) {
+        return new BatchLoader<>(batchFunction, maxBatchSize, window, scheduler);
+    }
+
+    public Mono<V> load(K key) {
+        Objects.requireNonNull(key, "key");
+        return Mono.create(sink -> enqueue(key, sink));
+    }
+
+    /*
+     * Numero de lotes enviados al backend.
+     */
+    public long batches() {
+        return batches.get();
+    }
+
+    private void enqueue(K key, MonoSink<V> sink) {
+        Map<K, List<MonoSink<V>>> full = null;
+        synchronized (lock) {
+            pending.computeIfAbsent(key, k -> new ArrayList<>(1)).add(sink);
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        sink.onCancel(() -> cancel(key, sink));
+        if (full != null) {
+            dispatch(full);
+        }
+    }
+
+    private void cancel(K key, MonoSink<V> sink) {
+        synchronized (lock) {
+            var sinks = pending.get(key);
+            if (sinks != null && sinks.remove(sink) && sinks.isEmpty()) {
+                pending.remove(key);
+            }
+        }
+    }
+
+    private void flush() {
+        Map<K, List<MonoSink<V>>> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    private Map<K, List<MonoSink<V>>> takePending() {
+        var batch = pending;
+        pending = new LinkedHashMap<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.dispose();
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(Map<K, List<MonoSink<V>>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batches.incrementAndGet();
+        Mono.defer(() -> batchFunction.apply(new ArrayList<>(batch.keySet())))
+                .defaultIfEmpty(Map.of())
+                .subscribe(result -> batch.forEach((key, sinks) -> {
+                    var value = result.get(key);
+                    sinks.forEach(sink -> {
+                        if (value == null) {
+                            sink.success();
+                        } else {
+                            sink.success(value);
+                        }
+                    });
+                }), error -> batch.values().forEach(sinks -> sinks.forEach(sink -> sink.error(error))));
+    }
+}
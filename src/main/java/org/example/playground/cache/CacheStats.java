@@ -0,0 +1,44 @@
+package org.example.playground.cache;
+
+/*
+ * Foto de los contadores de ReactiveCache en un momento dado.
+ */
+public final class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    CacheStats(long hits, long misses, long evictions) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public long misses() {
+        return misses;
+    }
+
+    public long evictions() {
+        return evictions;
+    }
+
+    public long requests() {
+        return hits + misses;
+    }
+
+    public double hitRatio() {
+        var requests = requests();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStats[hits=%d, misses=%d, evictions=%d, hitRatio=%.2f]",
+                hits, misses, evictions, hitRatio());
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.playground.cache;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/*
+ * Cache asincrona delante de una llamada tipo getMonoInteger.
+ *
+ * - Las peticiones en vuelo se comparten: dos suscriptores de la misma clave reciben el mismo Mono
+ *   y el backend solo ve una llamada.
+ * - Los valores caducan ttl despues de llegar y, como mucho, se guardan maxSize claves (LRU).
+ * - Ni los errores ni los Mono vacios se cachean: la siguiente peticion vuelve a llamar al backend.
+ */
+public final class ReactiveCache<K, V> {
+
+    private final Function<K, Mono<V>> loader;
+    private final long ttlNanos;
+    private final Scheduler clock;
+    private final Map<K, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private ReactiveCache(Function<K, Mono<V>> loader, int maxSize, Duration ttl, Scheduler clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be >= 1, was " + maxSize);
+        }
+        this.loader = Objects.requireNonNull(loader, "loader");
+        this.ttlNanos = Objects.requireNonNull(ttl, "ttl").toNanos();
+        this.clock = Objects.requireNonNull(clock, "clock");
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static <K, V> ReactiveCache<K, V> create(Function<K, Mono<V>> loader, int maxSize, Duration ttl) {
+        return create(loader, maxSize, ttl, Schedulers.parallel());
+    }
+
+    /*
+     * clock solo se usa para leer la hora (Scheduler#now), util para los tests con VirtualTimeScheduler.
+     */
+    public static <K, V> ReactiveCache<K, V> create(Function<K, Mono<V>> loader, int maxSize, Duration ttl,
+                                                    Scheduler clock) {
+        return new ReactiveCache<>(loader, maxSize, ttl, clock);
+    }
+
+    public Mono<V> get(K key) {
+        Objects.requireNonNull(key, "key");
+        return Mono.defer(() -> lookup(key));
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private Mono<V> lookup(K key) {
+        var now = now();
+        Entry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAt - now > 0) {
+                hits.increment();
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.increment();
+            }
+            entry = newEntry(key);
+            entries.put(key, entry);
+        }
+        misses.increment();
+        return entry.value;
+    }
+
+    private Entry<V> newEntry(K key) {
+        var entry = new Entry<V>();
+        entry.value = Mono.defer(() -> loader.apply(key))
+                .doOnNext(value -> entry.expiresAt = now() + ttlNanos)
+                .doOnSuccess(value -> {
+                    if (value == null) {
+                        remove(key, entry);
+                    }
+                })
+                .doOnError(error -> remove(key, entry))
+                .cache();
+        return entry;
+    }
+
+    private void remove(K key, Entry<V> entry) {
+        synchronized (entries) {
+            if (entries.get(key) == entry) {
+                entries.remove(key);
+            }
+        }
+    }
+
+    private long now() {
+        return clock.now(TimeUnit.NANOSECONDS);
+    }
+
+    private static final class Entry<V> {
+        //mientras la llamada esta en vuelo la entrada no caduca
+        volatile long expiresAt = Long.MAX_VALUE;
+        volatile Mono<V> value;
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.playground.deadline;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/*
+ * Instante limite del llamante propagado en el Context de Reactor, para que las llamadas anidadas
+ * (callMonoWithFatherSubscription, webfluxTestMonoZipWithRetry) sepan cuanto tiempo les queda:
+ *
+ *   monoInteger(1)
+ *           .flatMap(number -> monoInteger(number * 11).transform(Deadline.guard()))
+ *           .transform(Deadline.retry(Retry.backoff(3, Duration.ofMillis(100))))
+ *           .transform(Deadline.within(Duration.ofMillis(500)))
+ *
+ * - within fija el deadline de todo lo que hay por debajo. Si ya habia uno mas cercano se queda ese: un
+ *   llamante interno no puede alargar el presupuesto del externo.
+ * - guard en una llamada anidada falla con DeadlineExceededException sin suscribirse si ya no queda tiempo, y
+ *   cancela la llamada en curso cuando se acaba.
+ * - retry no reintenta si el siguiente intento podria empezar despues del deadline (backoff y jitter incluidos):
+ *   se propaga el error original en vez de esperar a que caduque.
+ *
+ * El Context viaja de abajo arriba, asi que within tiene que ir despues (mas abajo en la cadena) de lo que protege.
+ */
+public final class Deadline {
+
+    private static final Object KEY = Deadline.class;
+
+    private final long expiresAt;
+    private final Scheduler clock;
+
+    private Deadline(long expiresAt, Scheduler clock) {
+        this.expiresAt = expiresAt;
+        this.clock = clock;
+    }
+
+    public static Deadline after(Duration budget, Scheduler clock) {
+        Objects.requireNonNull(budget, "budget");
+        Objects.requireNonNull(clock, "clock");
+        return new Deadline(clock.now(TimeUnit.NANOSECONDS) + budget.toNanos(), clock);
+    }
+
+    /*
+     * El deadline de la suscripcion en curso, si lo hay.
+     */
+    public static Optional<Deadline> current(ContextView context) {
+        return context.getOrEmpty(KEY);
+    }
+
+    public Duration remaining() {
+        var remaining = expiresAt - clock.now(TimeUnit.NANOSECONDS);
+        return Duration.ofNanos(Math.max(0, remaining));
+    }
+
+    public boolean isExpired() {
+        return remaining().isZero();
+    }
+
+    public static <T> Function<Mono<T>, Mono<T>> within(Duration budget) {
+        return within(budget, Schedulers.parallel());
+    }
+
+    /*
+     * clock es el reloj del deadline y donde se programa la cancelacion.
+     */
+    public static <T> Function<Mono<T>, Mono<T>> within(Duration budget, Scheduler clock) {
+        Objects.requireNonNull(budget, "budget");
+        Objects.requireNonNull(clock, "clock");
+        return mono -> Mono.deferContextual(context -> {
+            var own = after(budget, clock);
+            var deadline = current(context).filter(parent -> parent.expiresAt <= own.expiresAt).orElse(own);
+            return deadline.guard(mono).contextWrite(inner -> inner.put(KEY, deadline));
+        });
+    }
+
+    /*
+     * Sin deadline en el Context la llamada pasa tal cual.
+     */
+    public static <T> Function<Mono<T>, Mono<T>> guard() {
+        return mono -> Mono.deferContextual(context -> current(context)
+                .map(deadline -> deadline.guard(mono))
+                .orElse(mono));
+    }
+
+    /*
+     * retryWhen(backoff) que solo reintenta si el siguiente intento empezaria antes del deadline. Se compara con el
+     * mayor retraso que backoff puede programar para ese reintento, min(maxBackoff, minBackoff * 2^n) mas todo el
+     * jitter, asi que con jitter alguno que habria cabido tambien se descarta. El filtro propio de backoff se respeta
+     * y DeadlineExceededException no se reintenta nunca.
+     */
+    public static <T> Function<Mono<T>, Mono<T>> retry(RetryBackoffSpec backoff) {
+        Objects.requireNonNull(backoff, "backoff");
+        return mono -> Mono.deferContextual(context -> {
+            var deadline = current(context);
+            if (deadline.isEmpty()) {
+                return mono.retryWhen(backoff);
+            }
+            //el tiempo se mira en doBeforeRetry y no en el filtro: el filtro no sabe que reintento es
+            return mono.retryWhen(backoff
+                    .modifyErrorFilter(retryable -> retryable
+                            .and(error -> !(error instanceof DeadlineExceededException)))
+                    .doBeforeRetry(signal -> {
+                        var iteration = backoff.isTransientErrors ? signal.totalRetriesInARow() : signal.totalRetries();
+                        if (deadline.get().remaining().compareTo(maxDelay(backoff, iteration)) <= 0) {
+                            throw Deadline.<RuntimeException>rethrow(signal.failure());
+                        }
+                    }));
+        });
+    }
+
+    //el mismo calculo que RetryBackoffSpec, con el jitter al maximo
+    private static Duration maxDelay(RetryBackoffSpec backoff, long iteration) {
+        try {
+            var next = backoff.minBackoff.multipliedBy((long) Math.pow(2, iteration));
+            if (next.compareTo(backoff.maxBackoff) > 0) {
+                next = backoff.maxBackoff;
+            }
+            var jittered = next.plus(next.multipliedBy((long) (100 * backoff.jitterFactor)).dividedBy(100));
+            return jittered.compareTo(backoff.maxBackoff) > 0 ? backoff.maxBackoff : jittered;
+        } catch (ArithmeticException overflow) {
+            return backoff.maxBackoff;
+        }
+    }
+
+    //propaga el error original tal cual, tambien si es checked: retryWhen lo emite como error de la cadena
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E rethrow(Throwable error) throws E {
+        throw (E) error;
+    }
+
+    private <T> Mono<T> guard(Mono<T> mono) {
+        var remaining = remaining();
+        if (remaining.isZero()) {
+            return Mono.error(expired());
+        }
+        return mono.timeout(Mono.delay(remaining, clock), Mono.error(this::expired));
+    }
+
+    private DeadlineExceededException expired() {
+        return new DeadlineExceededException("deadline exceeded");
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline[remaining=" + remaining().toMillis() + "ms]";
+    }
+}
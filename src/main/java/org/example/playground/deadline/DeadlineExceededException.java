@@ -0,0 +1,13 @@
+package org.example.playground.deadline;
+
+/*
+ * El presupuesto de tiempo del llamante se ha agotado: la llamada no se empieza o se cancela.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.playground.gather;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/*
+ * Los slots de ScatterGather en el mismo orden que las fuentes.
+ */
+public final class PartialResult<T> {
+
+    private final List<Slot<T>> slots;
+
+    PartialResult(List<Slot<T>> slots) {
+        this.slots = List.copyOf(Objects.requireNonNull(slots, "slots"));
+    }
+
+    public List<Slot<T>> slots() {
+        return slots;
+    }
+
+    public Slot<T> slot(int index) {
+        return slots.get(index);
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    /*
+     * true si todas las fuentes han devuelto valor: lo mismo que habria devuelto Mono.zip.
+     */
+    public boolean isComplete() {
+        return slots.stream().allMatch(Slot::hasValue);
+    }
+
+    /*
+     * Los valores que hay, en el orden de las fuentes y sin huecos.
+     */
+    public List<T> values() {
+        return slots.stream().filter(Slot::hasValue).map(Slot::value).collect(Collectors.toList());
+    }
+
+    public long count(Slot.Status status) {
+        return slots.stream().filter(slot -> slot.status() == status).count();
+    }
+
+    @Override
+    public String toString() {
+        return "PartialResult" + slots;
+    }
+}
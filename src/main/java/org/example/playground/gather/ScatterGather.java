@@ -0,0 +1,127 @@
+package org.example.playground.gather;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuple3;
+import reactor.util.function.Tuples;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Un Mono.zip que no tira lo que ya se ha calculado. Con Mono.zip (callMonoWithZipWhenException,
+ * callMonoWithZipWhenReturnEmpty) basta con que una fuente falle o termine vacia para perder el resultado entero y
+ * cancelar las demas; aqui cada fuente acaba en su Slot y el resultado siempre llega:
+ *
+ *   var gather = ScatterGather.of(Duration.ofMillis(500));
+ *   gather.zip(monoInteger(1), monoEmpty(2)).map(slots -> slots.getT1().orElse(0) + slots.getT2().orElse(0))
+ *
+ * - Todas las fuentes se suscriben a la vez y cada una una sola vez: nada de lo terminado se repite.
+ * - El resultado llega cuando termina la ultima fuente, o al deadline: lo que siga pendiente se cancela y
+ *   queda TIMED_OUT.
+ * - scheduler es el del temporizador del deadline y el reloj de Slot.elapsed().
+ */
+public final class ScatterGather {
+
+    private final Duration deadline;
+    private final Scheduler scheduler;
+
+    private ScatterGather(Duration deadline, Scheduler scheduler) {
+        this.deadline = Objects.requireNonNull(deadline, "deadline");
+        if (deadline.isNegative() || deadline.isZero()) {
+            throw new IllegalArgumentException("deadline must be > 0, was " + deadline);
+        }
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+    }
+
+    public static ScatterGather of(Duration deadline) {
+        return of(deadline, Schedulers.parallel());
+    }
+
+    public static ScatterGather of(Duration deadline, Scheduler scheduler) {
+        return new ScatterGather(deadline, scheduler);
+    }
+
+    public Duration deadline() {
+        return deadline;
+    }
+
+    public <T> Mono<PartialResult<T>> gather(List<? extends Mono<? extends T>> sources) {
+        Objects.requireNonNull(sources, "sources");
+        if (sources.isEmpty()) {
+            return Mono.just(new PartialResult<>(List.of()));
+        }
+        return Mono.defer(() -> {
+            var start = now();
+            List<Mono<Slot<T>>> slots = new ArrayList<>(sources.size());
+            for (Mono<? extends T> source : sources) {
+                slots.add(slot(source, start));
+            }
+            return Mono.zip(slots, ScatterGather::toResult);
+        });
+    }
+
+    @SafeVarargs
+    public final <T> Mono<PartialResult<T>> gather(Mono<? extends T>... sources) {
+        //copia elemento a elemento: pasar el array tal cual a otro metodo es lo que -Xlint:varargs marca
+        List<Mono<? extends T>> list = new ArrayList<>(sources.length);
+        for (Mono<? extends T> source : sources) {
+            list.add(source);
+        }
+        return gather(list);
+    }
+
+    public <A, B> Mono<Tuple2<Slot<A>, Slot<B>>> zip(Mono<A> first, Mono<B> second) {
+        return Mono.defer(() -> {
+            var start = now();
+            return Mono.zip(slot(first, start), slot(second, start));
+        });
+    }
+
+    public <A, B, C> Mono<Tuple3<Slot<A>, Slot<B>, Slot<C>>> zip(Mono<A> first, Mono<B> second, Mono<C> third) {
+        return Mono.defer(() -> {
+            var start = now();
+            return Mono.zip(slot(first, start), slot(second, start), slot(third, start))
+                    .map(slots -> Tuples.of(slots.getT1(), slots.getT2(), slots.getT3()));
+        });
+    }
+
+    /*
+     * Una fuente convertida en un Mono que siempre devuelve exactamente un Slot: Mono.zip nunca corta.
+     */
+    private <T> Mono<Slot<T>> slot(Mono<? extends T> source, long start) {
+        Objects.requireNonNull(source, "source");
+        return source.<Slot<T>>map(value -> Slot.value(value, elapsed(start)))
+                .switchIfEmpty(Mono.fromSupplier(() -> Slot.empty(elapsed(start))))
+                .onErrorResume(error -> Mono.fromSupplier(() -> Slot.error(error, elapsed(start))))
+                .timeout(remaining(start), Mono.fromSupplier(() -> Slot.timedOut(elapsed(start))), scheduler);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> PartialResult<T> toResult(Object[] slots) {
+        List<Slot<T>> result = new ArrayList<>(slots.length);
+        for (var slot : slots) {
+            result.add((Slot<T>) slot);
+        }
+        return new PartialResult<>(result);
+    }
+
+    //el deadline cuenta desde el scatter, no desde que se suscribe cada fuente
+    private Duration remaining(long start) {
+        var remaining = deadline.minus(elapsed(start));
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    private Duration elapsed(long start) {
+        return Duration.ofNanos(now() - start);
+    }
+
+    private long now() {
+        return scheduler.now(TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.playground.gather;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/*
+ * Resultado de una de las fuentes de ScatterGather: su valor, que termino vacia, que fallo o que no
+ * termino antes del deadline. elapsed es lo que tardo desde que empezo el scatter.
+ */
+public final class Slot<T> {
+
+    public enum Status {
+        VALUE,
+        EMPTY,
+        ERROR,
+        TIMED_OUT
+    }
+
+    private final Status status;
+    private final T value;
+    private final Throwable error;
+    private final Duration elapsed;
+
+    private Slot(Status status, T value, Throwable error, Duration elapsed) {
+        this.status = status;
+        this.value = value;
+        this.error = error;
+        this.elapsed = Objects.requireNonNull(elapsed, "elapsed");
+    }
+
+    static <T> Slot<T> value(T value, Duration elapsed) {
+        return new Slot<>(Status.VALUE, Objects.requireNonNull(value, "value"), null, elapsed);
+    }
+
+    static <T> Slot<T> empty(Duration elapsed) {
+        return new Slot<>(Status.EMPTY, null, null, elapsed);
+    }
+
+    static <T> Slot<T> error(Throwable error, Duration elapsed) {
+        return new Slot<>(Status.ERROR, null, Objects.requireNonNull(error, "error"), elapsed);
+    }
+
+    static <T> Slot<T> timedOut(Duration elapsed) {
+        return new Slot<>(Status.TIMED_OUT, null, null, elapsed);
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    public boolean hasValue() {
+        return status == Status.VALUE;
+    }
+
+    /*
+     * NoSuchElementException si el slot no tiene valor.
+     */
+    public T value() {
+        if (status != Status.VALUE) {
+            throw new NoSuchElementException("slot is " + status);
+        }
+        return value;
+    }
+
+    public T orElse(T other) {
+        return status == Status.VALUE ? value : other;
+    }
+
+    /*
+     * El error de la fuente, o null si no ha fallado.
+     */
+    public Throwable error() {
+        return error;
+    }
+
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    @Override
+    public String toString() {
+        switch (status) {
+            case VALUE:
+                return "Slot[" + value + " in " + elapsed.toMillis() + "ms]";
+            case ERROR:
+                return "Slot[ERROR " + error + " in " + elapsed.toMillis() + "ms]";
+            default:
+                return "Slot[" + status + " in " + elapsed.toMillis() + "ms]";
+        }
+    }
+}
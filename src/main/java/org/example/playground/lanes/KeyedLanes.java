@@ -0,0 +1,222 @@
+package org.example.playground.lanes;
+
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/*
+ * Entre el flatMap de webfluxSubscribeBehaviour (todo a la vez, sin orden) y un concatMap (en orden, de uno en uno):
+ * orden estricto por clave (p.ej. por cuenta) y paralelismo entre claves.
+ *
+ *   var lanes = KeyedLanes.of(16);
+ *   Flux.fromIterable(movements).transform(lanes.flatMap(Movement::account, this::apply))
+ *
+ * - Cada elemento va al carril hash(clave) % lanes. Dentro de un carril las llamadas van de una en una y en orden de
+ *   llegada; los carriles van en paralelo. Dos claves en el mismo carril comparten orden (mas estricto, nunca menos).
+ * - Como mucho maxPending elementos recibidos sin terminar entre todos los carriles: el resto espera en el origen.
+ * - Un carril sin nada pendiente durante idleTimeout se cierra y se libera (se comprueba cada idleTimeout, asi que
+ *   tarda entre una y dos veces idleTimeout); si vuelve a llegar su clave se crea otro.
+ *
+ * Los contadores son de la etapa, no de cada suscripcion. clock es el del timeout de inactividad.
+ */
+public final class KeyedLanes {
+
+    private static final Object TICK = new Object();
+    private static final Object END = new Object();
+
+    private final int lanes;
+    private final int maxPending;
+    private final Duration idleTimeout;
+    private final Scheduler clock;
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reclaimed = new LongAdder();
+    private final AtomicInteger active = new AtomicInteger();
+
+    private KeyedLanes(int lanes, int maxPending, Duration idleTimeout, Scheduler clock) {
+        if (lanes < 1 || maxPending < 1) {
+            throw new IllegalArgumentException(String.format("lanes and maxPending must be >= 1, were %d and %d",
+                    lanes, maxPending));
+        }
+        this.lanes = lanes;
+        this.maxPending = maxPending;
+        this.idleTimeout = Objects.requireNonNull(idleTimeout, "idleTimeout");
+        if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("idleTimeout must be > 0, was " + idleTimeout);
+        }
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /*
+     * 256 pendientes y carriles inactivos durante 1s liberados, en Schedulers.parallel().
+     */
+    public static KeyedLanes of(int lanes) {
+        return of(lanes, Queues.SMALL_BUFFER_SIZE, Duration.ofSeconds(1), Schedulers.parallel());
+    }
+
+    public static KeyedLanes of(int lanes, int maxPending, Duration idleTimeout, Scheduler clock) {
+        return new KeyedLanes(lanes, maxPending, idleTimeout, clock);
+    }
+
+    public <T, K, R> Function<Flux<T>, Flux<R>> flatMap(Function<? super T, K> keyOf,
+                                                        Function<? super T, ? extends Mono<R>> mapper) {
+        Objects.requireNonNull(keyOf, "keyOf");
+        Objects.requireNonNull(mapper, "mapper");
+        return flux -> Flux.defer(() -> new Run<T, K, R>(keyOf, mapper).start(flux));
+    }
+
+    /*
+     * Carriles abiertos ahora mismo.
+     */
+    public int active() {
+        return active.get();
+    }
+
+    public long created() {
+        return created.sum();
+    }
+
+    /*
+     * Carriles cerrados por inactividad.
+     */
+    public long reclaimed() {
+        return reclaimed.sum();
+    }
+
+    private long now() {
+        return clock.now(TimeUnit.NANOSECONDS);
+    }
+
+    /*
+     * Una suscripcion. Elementos, ticks de inactividad y el final del origen llegan serializados por el mismo
+     * merge: abrir, alimentar y cerrar carriles nunca ocurre a la vez.
+     */
+    private final class Run<T, K, R> {
+        private final Function<? super T, K> keyOf;
+        private final Function<? super T, ? extends Mono<R>> mapper;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private final Lane<T>[] table = new Lane[lanes];
+        private final Sinks.Many<Flux<R>> laneFluxes = Sinks.many().unicast().onBackpressureBuffer();
+        private final Dispatcher dispatcher = new Dispatcher();
+
+        Run(Function<? super T, K> keyOf, Function<? super T, ? extends Mono<R>> mapper) {
+            this.keyOf = keyOf;
+            this.mapper = mapper;
+        }
+
+        Flux<R> start(Flux<T> flux) {
+            var ticks = Flux.interval(idleTimeout, idleTimeout, clock).onBackpressureDrop().map(tick -> TICK);
+            var events = Flux.merge(flux.<Object>map(element -> element).concatWith(Mono.just(END)), ticks);
+            //como mucho un carril vivo por posicion de la tabla
+            return laneFluxes.asFlux()
+                    .flatMap(Function.identity(), Integer.MAX_VALUE)
+                    .doOnSubscribe(subscription -> events.subscribe(dispatcher))
+                    .doFinally(signal -> dispatcher.dispose());
+        }
+
+        private void dispatch(T element) {
+            var index = Math.floorMod(spread(Objects.hashCode(keyOf.apply(element))), lanes);
+            var lane = table[index];
+            if (lane == null) {
+                lane = new Lane<>(now());
+                table[index] = lane;
+                created.increment();
+                active.incrementAndGet();
+                var opened = lane;
+                laneFluxes.emitNext(opened.sink.asFlux()
+                                .concatMap(next -> call(opened, next))
+                                .doFinally(signal -> active.decrementAndGet()),
+                        Sinks.EmitFailureHandler.FAIL_FAST);
+            }
+            lane.pending.incrementAndGet();
+            lane.lastActive = now();
+            lane.sink.emitNext(element, Sinks.EmitFailureHandler.FAIL_FAST);
+        }
+
+        private Mono<R> call(Lane<T> lane, T element) {
+            return Mono.<R>defer(() -> mapper.apply(element))
+                    .doFinally(signal -> {
+                        lane.lastActive = now();
+                        lane.pending.decrementAndGet();
+                        dispatcher.request(1);
+                    });
+        }
+
+        private void reclaimIdle() {
+            var now = now();
+            for (int i = 0; i < table.length; i++) {
+                var lane = table[i];
+                if (lane != null && lane.pending.get() == 0 && now - lane.lastActive >= idleTimeout.toNanos()) {
+                    table[i] = null;
+                    lane.sink.tryEmitComplete();
+                    reclaimed.increment();
+                }
+            }
+        }
+
+        private void closeAll() {
+            for (int i = 0; i < table.length; i++) {
+                var lane = table[i];
+                if (lane != null) {
+                    table[i] = null;
+                    lane.sink.tryEmitComplete();
+                }
+            }
+        }
+
+        private final class Dispatcher extends BaseSubscriber<Object> {
+
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(maxPending);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            protected void hookOnNext(Object event) {
+                if (event == TICK) {
+                    reclaimIdle();
+                    request(1);
+                } else if (event == END) {
+                    //los carriles terminan lo que tengan en cola y completan
+                    closeAll();
+                    laneFluxes.tryEmitComplete();
+                    cancel();
+                } else {
+                    dispatch((T) event);
+                }
+            }
+
+            @Override
+            protected void hookOnError(Throwable error) {
+                laneFluxes.tryEmitError(error);
+            }
+        }
+    }
+
+    private static final class Lane<T> {
+        final Sinks.Many<T> sink = Sinks.many().unicast().onBackpressureBuffer();
+        final AtomicInteger pending = new AtomicInteger();
+        volatile long lastActive;
+
+        Lane(long now) {
+            this.lastActive = now;
+        }
+    }
+
+    //como HashMap: mezcla los bits altos para que claves consecutivas no caigan siempre juntas
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,253 @@
+package org.example.playground.limit;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+ * Limita las llamadas en vuelo contra el backend y ajusta el limite en caliente (AIMD) segun la latencia observada,
+ * en lugar de fijar un flatMap(fn, n) a mano.
+ *
+ * - Si una llamada tarda mas de minRtt * latencyTolerance, o falla, el limite se multiplica por backoffRatio.
+ *   Solo se reduce una vez por "generacion": las llamadas que empezaron antes de la ultima reduccion no vuelven a reducir.
+ * - Si la llamada es rapida y el limite estaba en uso, el limite sube 1/limit (aprox. +1 por cada ronda completa).
+ * - minRtt se recalcula cada probeInterval muestras con el minimo de esa ventana, para adaptarse si cambia la
+ *   latencia base.
+ *
+ * Las llamadas que no caben esperan en una cola FIFO sin bloquear ningun hilo. Los permisos que libera una llamada
+ * se entregan a las que esperan desde un bucle (trampolin), no de forma recursiva: con mappers sincronos la pila no
+ * crece con cada llamada encadenada.
+ */
+public final class AdaptiveLimiter {
+
+    private static final int DEFAULT_PROBE_INTERVAL = 1000;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final int probeInterval;
+    private final Scheduler clock;
+
+    private final Object lock = new Object();
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private final Queue<Waiter> granted = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger delivering = new AtomicInteger();
+    private double limit;
+    private int inFlight;
+    private long epoch;
+    private long minRtt = Long.MAX_VALUE;
+    private long windowMinRtt = Long.MAX_VALUE;
+    private int samples;
+
+    private AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double latencyTolerance,
+                            int probeInterval, Scheduler clock) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(String.format("invalid limits: initial=%d min=%d max=%d",
+                    initialLimit, minLimit, maxLimit));
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be in (0, 1), was " + backoffRatio);
+        }
+        if (latencyTolerance < 1) {
+            throw new IllegalArgumentException("latencyTolerance must be >= 1, was " + latencyTolerance);
+        }
+        if (probeInterval < 1) {
+            throw new IllegalArgumentException("probeInterval must be >= 1, was " + probeInterval);
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.probeInterval = probeInterval;
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /*
+     * Valores razonables para empezar: limite inicial 4, entre 1 y maxLimit, backoff 0.9 y tolerancia 1.5x minRtt.
+     */
+    public static AdaptiveLimiter aimd(int maxLimit) {
+        return aimd(Math.min(4, maxLimit), 1, maxLimit, 0.9, 1.5, Schedulers.parallel());
+    }
+
+    /*
+     * minRtt se recalcula cada 1000 muestras.
+     */
+    public static AdaptiveLimiter aimd(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                                       double latencyTolerance, Scheduler clock) {
+        return aimd(initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance, DEFAULT_PROBE_INTERVAL, clock);
+    }
+
+    /*
+     * probeInterval: cada cuantas muestras se recalcula minRtt. Mas pequeno sigue antes los cambios de latencia
+     * base, pero una ventana sin ninguna llamada rapida sube minRtt y con el la tolerancia.
+     */
+    public static AdaptiveLimiter aimd(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                                       double latencyTolerance, int probeInterval, Scheduler clock) {
+        return new AdaptiveLimiter(initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance, probeInterval,
+                clock);
+    }
+
+    /*
+     * Equivalente a flatMap(mapper) pero con las llamadas a mapper limitadas por este limiter:
+     * Flux.range(1, 6).transform(limiter.flatMap(this::monoInteger))
+     */
+    public <T, R> Function<Flux<T>, Flux<R>> flatMap(Function<? super T, ? extends Mono<R>> mapper) {
+        return flux -> flux.flatMap(element -> run(() -> mapper.apply(element)), maxLimit);
+    }
+
+    public <T> Mono<T> run(Supplier<? extends Mono<T>> call) {
+        return Mono.usingWhen(acquire(),
+                permit -> call.get(),
+                permit -> Mono.fromRunnable(() -> release(permit, true, false)),
+                (permit, error) -> Mono.fromRunnable(() -> release(permit, true, true)),
+                permit -> Mono.fromRunnable(() -> release(permit, false, false)));
+    }
+
+    public int limit() {
+        synchronized (lock) {
+            return (int) limit;
+        }
+    }
+
+    public int inFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    public int queued() {
+        synchronized (lock) {
+            return waiters.size();
+        }
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            var waiter = new Waiter(sink);
+            sink.onCancel(() -> cancel(waiter));
+            Permit permit = null;
+            synchronized (lock) {
+                if (waiter.cancelled) {
+                    return;
+                }
+                if (waiters.isEmpty() && inFlight < (int) limit) {
+                    permit = newPermit();
+                    waiter.permit = permit;
+                } else {
+                    waiters.add(waiter);
+                }
+            }
+            if (permit != null) {
+                sink.success(permit);
+            }
+        });
+    }
+
+    /*
+     * onCancel solo llega si el permiso no se ha entregado (MonoSink entrega o cancela, nunca las dos cosas):
+     * si ya estaba concedido, nadie lo va a liberar salvo aqui.
+     */
+    private void cancel(Waiter waiter) {
+        Permit permit;
+        synchronized (lock) {
+            waiter.cancelled = true;
+            if (waiters.remove(waiter)) {
+                return;
+            }
+            permit = waiter.permit;
+        }
+        if (permit != null) {
+            release(permit, false, false);
+        }
+    }
+
+    private void release(Permit permit, boolean sample, boolean dropped) {
+        synchronized (lock) {
+            inFlight--;
+            if (sample) {
+                update(permit, clock.now(TimeUnit.NANOSECONDS) - permit.start, dropped);
+            }
+            while (!waiters.isEmpty() && inFlight < (int) limit) {
+                var waiter = waiters.poll();
+                waiter.permit = newPermit();
+                granted.add(waiter);
+            }
+        }
+        deliver();
+    }
+
+    //un solo hilo entrega a la vez; si una entrega acaba liberando otro permiso, lo entrega este mismo bucle
+    private void deliver() {
+        if (delivering.getAndIncrement() != 0) {
+            return;
+        }
+        var missed = 1;
+        do {
+            Waiter waiter;
+            while ((waiter = granted.poll()) != null) {
+                waiter.sink.success(waiter.permit);
+            }
+            missed = delivering.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void update(Permit permit, long rtt, boolean dropped) {
+        minRtt = Math.min(minRtt, rtt);
+        windowMinRtt = Math.min(windowMinRtt, rtt);
+        if (++samples >= probeInterval) {
+            samples = 0;
+            minRtt = windowMinRtt;
+            windowMinRtt = Long.MAX_VALUE;
+        }
+        if (dropped || rtt > minRtt * latencyTolerance) {
+            if (permit.epoch == epoch) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                epoch++;
+            }
+        } else if (permit.inFlight * 2 >= (int) limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    private Permit newPermit() {
+        inFlight++;
+        return new Permit(clock.now(TimeUnit.NANOSECONDS), epoch, inFlight);
+    }
+
+    private static final class Waiter {
+        final MonoSink<Permit> sink;
+        //los dos con lock
+        Permit permit;
+        boolean cancelled;
+
+        Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    private static final class Permit {
+        final long start;
+        final long epoch;
+        final int inFlight;
+
+        Permit(long start, long epoch, int inFlight) {
+            this.start = start;
+            this.epoch = epoch;
+            this.inFlight = inFlight;
+        }
+    }
+}
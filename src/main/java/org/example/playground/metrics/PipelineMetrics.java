@@ -0,0 +1,115 @@
+package org.example.playground.metrics;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/*
+ * Instrumentacion de las etapas del playground, en lugar de leer "searching[...]"/"completed[...]" en consola:
+ *
+ *   var metrics = PipelineMetrics.create();
+ *   monoInteger(1).transform(metrics.mono("monoInteger"))
+ *   Flux.range(1, 6).flatMap(this::monoInteger).transform(metrics.flux("fanOut"))
+ *   System.out.println(metrics);
+ *
+ * Cada suscripcion a la etapa mide el tiempo desde onSubscribe hasta cada señal (onNext, onError y, si la etapa
+ * completa sin valores, onComplete), cuantas suscripciones hay en vuelo y en que hilo llega cada señal.
+ */
+public final class PipelineMetrics {
+
+    private final LongSupplier clock;
+    private final Map<String, StageMetrics> stages = new ConcurrentHashMap<>();
+
+    private PipelineMetrics(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static PipelineMetrics create() {
+        return new PipelineMetrics(System::nanoTime);
+    }
+
+    /*
+     * Mide con el reloj del scheduler, p.ej. un VirtualTimeScheduler.
+     */
+    public static PipelineMetrics create(Scheduler clock) {
+        Objects.requireNonNull(clock, "clock");
+        return new PipelineMetrics(() -> clock.now(TimeUnit.NANOSECONDS));
+    }
+
+    public <T> Function<Mono<T>, Mono<T>> mono(String stage) {
+        var metrics = stage(stage);
+        return mono -> Mono.defer(() -> {
+            var subscription = new StageMetrics.Subscription[1];
+            var emitted = new boolean[1];
+            return mono
+                    .doOnSubscribe(s -> subscription[0] = metrics.subscribed())
+                    .doOnNext(value -> {
+                        emitted[0] = true;
+                        subscription[0].signal();
+                    })
+                    .doOnError(error -> subscription[0].error())
+                    .doOnSuccess(value -> {
+                        if (!emitted[0]) {
+                            subscription[0].signal();
+                        }
+                    })
+                    .doFinally(signal -> subscription[0].terminated());
+        });
+    }
+
+    public <T> Function<Flux<T>, Flux<T>> flux(String stage) {
+        var metrics = stage(stage);
+        return flux -> Flux.defer(() -> {
+            var subscription = new StageMetrics.Subscription[1];
+            var emitted = new boolean[1];
+            return flux
+                    .doOnSubscribe(s -> subscription[0] = metrics.subscribed())
+                    .doOnNext(value -> {
+                        emitted[0] = true;
+                        subscription[0].signal();
+                    })
+                    .doOnError(error -> subscription[0].error())
+                    .doOnComplete(() -> {
+                        if (!emitted[0]) {
+                            subscription[0].signal();
+                        }
+                    })
+                    .doFinally(signal -> subscription[0].terminated());
+        });
+    }
+
+    public StageReport report(String stage) {
+        var metrics = stages.get(stage);
+        if (metrics == null) {
+            throw new IllegalArgumentException("unknown stage " + stage);
+        }
+        return metrics.report();
+    }
+
+    public List<StageReport> report() {
+        var reports = new ArrayList<StageReport>();
+        stages.values().forEach(metrics -> reports.add(metrics.report()));
+        reports.sort((a, b) -> a.stage().compareTo(b.stage()));
+        return reports;
+    }
+
+    @Override
+    public String toString() {
+        return report().stream().map(StageReport::toString).collect(Collectors.joining(System.lineSeparator()));
+    }
+
+    private StageMetrics stage(String stage) {
+        Objects.requireNonNull(stage, "stage");
+        return stages.computeIfAbsent(stage, name -> new StageMetrics(name, clock));
+    }
+}
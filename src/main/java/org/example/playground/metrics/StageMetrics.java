@@ -0,0 +1,69 @@
+package org.example.playground.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/*
+ * Medidas de una etapa del pipeline: latencia desde la suscripcion hasta cada señal,
+ * suscripciones en vuelo y en que hilos se han entregado las señales.
+ */
+final class StageMetrics {
+
+    private final String name;
+    private final LongSupplier clock;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final LongAdder subscriptions = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> threads = new ConcurrentHashMap<>();
+
+    StageMetrics(String name, LongSupplier clock) {
+        this.name = name;
+        this.clock = clock;
+    }
+
+    Subscription subscribed() {
+        subscriptions.increment();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        return new Subscription(clock.getAsLong());
+    }
+
+    StageReport report() {
+        var threadCounts = new TreeMap<String, Long>();
+        threads.forEach((thread, count) -> threadCounts.put(thread, count.sum()));
+        return new StageReport(name, subscriptions.sum(), latency.count(), errors.sum(), inFlight.get(),
+                maxInFlight.get(), latency.percentile(50), latency.percentile(99), latency.percentile(99.9),
+                latency.max(), threadCounts);
+    }
+
+    final class Subscription {
+        private final long start;
+        private final AtomicInteger done = new AtomicInteger();
+
+        private Subscription(long start) {
+            this.start = start;
+        }
+
+        void signal() {
+            latency.record(Math.max(0, clock.getAsLong() - start));
+            threads.computeIfAbsent(Thread.currentThread().getName(), thread -> new LongAdder()).increment();
+        }
+
+        void error() {
+            errors.increment();
+            signal();
+        }
+
+        //onComplete, onError o cancel: solo cuenta la primera
+        void terminated() {
+            if (done.compareAndSet(0, 1)) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.playground.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Resumen de una etapa en el momento de pedir el report. Latencias en nanosegundos (o en la unidad del reloj
+ * virtual, tambien en nanosegundos).
+ */
+public final class StageReport {
+
+    private final String stage;
+    private final long subscriptions;
+    private final long signals;
+    private final long errors;
+    private final int inFlight;
+    private final int maxInFlight;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+    private final Map<String, Long> threads;
+
+    StageReport(String stage, long subscriptions, long signals, long errors, int inFlight, int maxInFlight,
+                long p50, long p99, long p999, long max, Map<String, Long> threads) {
+        this.stage = stage;
+        this.subscriptions = subscriptions;
+        this.signals = signals;
+        this.errors = errors;
+        this.inFlight = inFlight;
+        this.maxInFlight = maxInFlight;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+        this.threads = threads;
+    }
+
+    public String stage() {
+        return stage;
+    }
+
+    public long subscriptions() {
+        return subscriptions;
+    }
+
+    public long signals() {
+        return signals;
+    }
+
+    public long errors() {
+        return errors;
+    }
+
+    public int inFlight() {
+        return inFlight;
+    }
+
+    public int maxInFlight() {
+        return maxInFlight;
+    }
+
+    public Duration p50() {
+        return Duration.ofNanos(p50);
+    }
+
+    public Duration p99() {
+        return Duration.ofNanos(p99);
+    }
+
+    public Duration p999() {
+        return Duration.ofNanos(p999);
+    }
+
+    public Duration max() {
+        return Duration.ofNanos(max);
+    }
+
+    /*
+     * Señales entregadas por nombre de hilo (parallel-1, boundedElastic-3, main...).
+     */
+    public Map<String, Long> threads() {
+        return threads;
+    }
+
+    /*
+     * Lo mismo que threads() agrupado por scheduler: el nombre del hilo sin el sufijo numerico.
+     */
+    public Map<String, Long> schedulers() {
+        var schedulers = new TreeMap<String, Long>();
+        threads.forEach((thread, count) -> schedulers.merge(thread.replaceFirst("-\\d+$", ""), count, Long::sum));
+        return schedulers;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-20s subs=%-6d signals=%-6d errors=%-4d inFlight=%-4d maxInFlight=%-4d "
+                        + "p50=%.3fms p99=%.3fms p999=%.3fms max=%.3fms schedulers=%s",
+                stage, subscriptions, signals, errors, inFlight, maxInFlight,
+                p50 / 1e6, p99 / 1e6, p999 / 1e6, max / 1e6, schedulers());
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.playground.overflow;
+
+/*
+ * Que hace OverflowStage con lo que llega cuando el consumidor va por detras y la cola esta llena.
+ */
+public enum OverflowPolicy {
+    /*
+     * Se descarta el elemento mas antiguo de la cola para hacer sitio al nuevo.
+     */
+    DROP_OLDEST,
+    /*
+     * Se descarta el elemento que llega; la cola se queda como estaba.
+     */
+    DROP_NEWEST,
+    /*
+     * Solo se guarda el ultimo: cada elemento nuevo sustituye al que esperaba (cola de 1).
+     */
+    LATEST,
+    /*
+     * Como mucho un elemento por intervalo, el ultimo que llego en ese intervalo; el resto se descarta.
+     * Lo que sale espera en una cola acotada que descarta el mas antiguo.
+     */
+    SAMPLE,
+    /*
+     * El flujo termina con un error de overflow (Exceptions.isOverflow).
+     */
+    ERROR
+}
@@ -0,0 +1,101 @@
+package org.example.playground.overflow;
+
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/*
+ * Etapa entre un productor rapido (Flux.range, Flux.fromIterable...) y un consumidor lento (getMonoInteger) que fija
+ * cuanto puede acumularse y que se hace con lo que no cabe:
+ *
+ *   var overflow = OverflowStage.of(OverflowPolicy.DROP_OLDEST, 16);
+ *   Flux.fromIterable(list).transform(overflow.flux()).flatMap(this::getMonoInteger, 4)
+ *
+ * Sin ella, lo que no pide el consumidor lo retiene el productor o, si no sabe esperar (un listener, un
+ * Sinks.many().multicast()), acaba en un buffer sin limite o en un error. Con ella la memoria queda acotada a
+ * capacity elementos sea cual sea la rafaga.
+ *
+ * Los contadores son de la etapa, no de cada suscripcion: varias suscripciones a la vez suman.
+ */
+public final class OverflowStage {
+
+    private final OverflowPolicy policy;
+    private final int capacity;
+    private final Duration sampleInterval;
+    private final Scheduler clock;
+    private final LongAdder received = new LongAdder();
+    private final LongAdder emitted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong maxDepth = new AtomicLong();
+
+    private OverflowStage(OverflowPolicy policy, int capacity, Duration sampleInterval, Scheduler clock) {
+        this.policy = Objects.requireNonNull(policy, "policy");
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be >= 1, was " + capacity);
+        }
+        this.capacity = policy == OverflowPolicy.LATEST ? 1 : capacity;
+        this.sampleInterval = sampleInterval;
+        this.clock = clock;
+    }
+
+    /*
+     * SAMPLE muestrea cada 100ms en Schedulers.parallel(); para otro intervalo, sample(...). Con LATEST la
+     * capacidad es siempre 1.
+     */
+    public static OverflowStage of(OverflowPolicy policy, int capacity) {
+        return new OverflowStage(policy, capacity, Duration.ofMillis(100), Schedulers.parallel());
+    }
+
+    public static OverflowStage sample(Duration interval, int capacity, Scheduler clock) {
+        Objects.requireNonNull(interval, "interval");
+        Objects.requireNonNull(clock, "clock");
+        return new OverflowStage(OverflowPolicy.SAMPLE, capacity, interval, clock);
+    }
+
+    public <T> Function<Flux<T>, Flux<T>> flux() {
+        return flux -> bounded(flux.doOnNext(value -> onReceived()))
+                .doOnNext(value -> emitted.increment());
+    }
+
+    public OverflowStats stats() {
+        return new OverflowStats(policy, capacity, received.sum(), emitted.sum(), dropped.sum(), maxDepth.get());
+    }
+
+    private <T> Flux<T> bounded(Flux<T> flux) {
+        switch (policy) {
+            case DROP_OLDEST:
+            case LATEST:
+                return flux.onBackpressureBuffer(capacity, this::onDropped, BufferOverflowStrategy.DROP_OLDEST);
+            case DROP_NEWEST:
+                return flux.onBackpressureBuffer(capacity, this::onDropped, BufferOverflowStrategy.DROP_LATEST);
+            case SAMPLE:
+                //cada ventana se reduce a su ultimo elemento; los sustituidos cuentan como descartados
+                return flux.window(sampleInterval, clock)
+                        .concatMap(window -> window.reduce((previous, next) -> {
+                            dropped.increment();
+                            return next;
+                        }))
+                        .onBackpressureBuffer(capacity, this::onDropped, BufferOverflowStrategy.DROP_OLDEST);
+            case ERROR:
+                return flux.onBackpressureBuffer(capacity, this::onDropped);
+            default:
+                throw new IllegalStateException("unknown policy " + policy);
+        }
+    }
+
+    private void onReceived() {
+        maxDepth.accumulateAndGet(received.sum() - emitted.sum() - dropped.sum(), Math::max);
+        received.increment();
+    }
+
+    private void onDropped(Object value) {
+        dropped.increment();
+    }
+}
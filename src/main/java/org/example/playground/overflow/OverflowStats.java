@@ -0,0 +1,69 @@
+package org.example.playground.overflow;
+
+/*
+ * Foto de los contadores de OverflowStage en un momento dado.
+ */
+public final class OverflowStats {
+
+    private final OverflowPolicy policy;
+    private final int capacity;
+    private final long received;
+    private final long emitted;
+    private final long dropped;
+    private final long maxDepth;
+
+    OverflowStats(OverflowPolicy policy, int capacity, long received, long emitted, long dropped, long maxDepth) {
+        this.policy = policy;
+        this.capacity = capacity;
+        this.received = received;
+        this.emitted = emitted;
+        this.dropped = dropped;
+        this.maxDepth = maxDepth;
+    }
+
+    public OverflowPolicy policy() {
+        return policy;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /*
+     * Elementos que han llegado desde el productor.
+     */
+    public long received() {
+        return received;
+    }
+
+    /*
+     * Elementos entregados al consumidor.
+     */
+    public long emitted() {
+        return emitted;
+    }
+
+    public long dropped() {
+        return dropped;
+    }
+
+    /*
+     * Elementos esperando en la cola ahora mismo.
+     */
+    public long depth() {
+        return Math.max(0, received - emitted - dropped);
+    }
+
+    /*
+     * Maximo de elementos en cola que se ha encontrado un elemento al llegar.
+     */
+    public long maxDepth() {
+        return maxDepth;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s(capacity=%d): received=%d emitted=%d dropped=%d depth=%d maxDepth=%d",
+                policy, capacity, received, emitted, dropped, depth(), maxDepth);
+    }
+}
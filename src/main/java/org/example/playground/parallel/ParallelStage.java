@@ -0,0 +1,232 @@
+package org.example.playground.parallel;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/*
+ * El patron de parallelOnFlux (parallel().runOn(...).flatMap(...).sequential()) con los parametros a la vista:
+ *
+ *   var stage = ParallelStage.of(ParallelStage.Dispatch.SHARED_QUEUE, 4, 8, false, Schedulers.parallel());
+ *   Flux.range(1, 6).transform(stage.flatMap(this::monoInteger))
+ *
+ * Cada rail procesa un elemento detras de otro. Como se reparten los elementos:
+ * - ROUND_ROBIN: como parallel(rails, prefetch), cada elemento va al siguiente rail que tenga hueco en su cola
+ *   (prefetch elementos) y espera alli aunque otro rail este libre. Con un prefetch grande es el rail i % rails;
+ *   con latencias desiguales unos rails se quedan parados mientras otros acumulan trabajo. Un prefetch pequeno
+ *   llena antes la cola de los rails lentos y reparte mejor.
+ * - SHARED_QUEUE: una unica cola (hasta prefetch elementos) de la que cada rail coge el siguiente en cuanto
+ *   termina, como un pool con work-stealing: el trabajo se reparte segun lo que tarda de verdad. Cada rail tiene
+ *   su worker del scheduler, asi que un mapper sincrono (CPU o bloqueante) tambien corre en paralelo.
+ *
+ * ordered = true devuelve los resultados en el orden de entrada (mergeComparing de los rails o flatMapSequential),
+ * a costa de retener los que acaban antes que uno anterior.
+ *
+ * scheduler es donde se ejecuta cada rail (el runOn, un worker por rail) y el reloj de las metricas.
+ */
+public final class ParallelStage {
+
+    public enum Dispatch {
+        ROUND_ROBIN,
+        SHARED_QUEUE
+    }
+
+    private final Dispatch dispatch;
+    private final int rails;
+    private final int prefetch;
+    private final boolean ordered;
+    private final Scheduler scheduler;
+    private final Rail[] metrics;
+    private final Rail sharedQueue = new Rail();
+    private final AtomicLong start = new AtomicLong(-1);
+    private final AtomicLong end = new AtomicLong(-1);
+
+    private ParallelStage(Dispatch dispatch, int rails, int prefetch, boolean ordered, Scheduler scheduler) {
+        if (rails < 1 || prefetch < 1) {
+            throw new IllegalArgumentException(String.format("rails and prefetch must be >= 1, were %d and %d",
+                    rails, prefetch));
+        }
+        this.dispatch = Objects.requireNonNull(dispatch, "dispatch");
+        this.rails = rails;
+        this.prefetch = prefetch;
+        this.ordered = ordered;
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+        this.metrics = new Rail[rails];
+        for (int i = 0; i < rails; i++) {
+            metrics[i] = new Rail();
+        }
+    }
+
+    /*
+     * Los valores de parallel(): un rail por CPU, prefetch de 256 y sin orden.
+     */
+    public static ParallelStage of(Dispatch dispatch) {
+        return of(dispatch, Schedulers.DEFAULT_POOL_SIZE, Queues.SMALL_BUFFER_SIZE, false, Schedulers.parallel());
+    }
+
+    public static ParallelStage of(Dispatch dispatch, int rails, int prefetch, boolean ordered, Scheduler scheduler) {
+        return new ParallelStage(dispatch, rails, prefetch, ordered, scheduler);
+    }
+
+    public <T, R> Function<Flux<T>, Flux<R>> flatMap(Function<? super T, ? extends Mono<R>> mapper) {
+        Objects.requireNonNull(mapper, "mapper");
+        return flux -> {
+            var indexed = flux.index().doOnSubscribe(subscription -> start.compareAndSet(-1, now()));
+            var results = dispatch == Dispatch.ROUND_ROBIN
+                    ? roundRobin(indexed, mapper)
+                    : sharedQueue(indexed, mapper);
+            return results.map(Tuple2::getT2).doFinally(signal -> end.set(now()));
+        };
+    }
+
+    /*
+     * Contadores de cada rail desde la primera suscripcion hasta que termina la ultima (o hasta ahora).
+     */
+    public List<RailStats> stats() {
+        var started = start.get();
+        var finished = end.get() < started ? now() : end.get();
+        var elapsed = started < 0 ? 0 : finished - started;
+        List<RailStats> stats = new ArrayList<>(rails);
+        for (int i = 0; i < rails; i++) {
+            stats.add(metrics[i].stats(i, elapsed));
+        }
+        return stats;
+    }
+
+    /*
+     * Elementos recibidos que aun no han empezado, en las colas de los rails o en la cola comun.
+     */
+    public long queued() {
+        var queued = sharedQueue.queued.get();
+        for (var rail : metrics) {
+            queued += rail.queued.get();
+        }
+        return queued;
+    }
+
+    private <T, R> Flux<Tuple2<Long, R>> roundRobin(Flux<Tuple2<Long, T>> flux,
+                                                     Function<? super T, ? extends Mono<R>> mapper) {
+        var railFluxes = flux.parallel(rails, prefetch)
+                .groups()
+                .map(group -> {
+                    var rail = group.key();
+                    return group.doOnNext(element -> metrics[rail].enqueue())
+                            .publishOn(scheduler, prefetch)
+                            .concatMap(element -> Mono.defer(() -> {
+                                metrics[rail].dequeue();
+                                return call(rail, element, mapper);
+                            }), 1);
+                });
+        if (!ordered) {
+            return railFluxes.flatMap(Function.identity(), rails);
+        }
+        //cada rail ya sale en orden de entrada: basta con mezclarlos por indice
+        return railFluxes.collectList().flatMapMany(this::mergeByIndex);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <R> Flux<Tuple2<Long, R>> mergeByIndex(List<Flux<Tuple2<Long, R>>> railFluxes) {
+        var sources = (Publisher<Tuple2<Long, R>>[]) railFluxes.toArray(Publisher[]::new);
+        return Flux.mergeComparing(prefetch, Comparator.comparing(Tuple2::getT1), sources);
+    }
+
+    private <T, R> Flux<Tuple2<Long, R>> sharedQueue(Flux<Tuple2<Long, T>> flux,
+                                                      Function<? super T, ? extends Mono<R>> mapper) {
+        return Flux.defer(() -> {
+            //un worker por rail: el mapper (y lo que haga de forma sincrona) corre en el hilo de su rail
+            var workers = new Scheduler.Worker[rails];
+            var free = new ConcurrentLinkedQueue<Integer>();
+            for (int i = 0; i < rails; i++) {
+                workers[i] = scheduler.createWorker();
+                free.add(i);
+            }
+            var queue = flux.doOnNext(element -> sharedQueue.enqueue())
+                    .publishOn(scheduler, prefetch)
+                    .doOnNext(element -> sharedQueue.dequeue());
+            Function<Tuple2<Long, T>, Mono<Tuple2<Long, R>>> onFreeRail = element -> Mono.defer(() -> {
+                var rail = free.poll();
+                if (rail == null) {
+                    return Mono.error(new IllegalStateException("no free rail"));
+                }
+                //el rail se libera una sola vez y antes de que flatMap pida el siguiente elemento
+                var released = new AtomicBoolean();
+                Runnable release = () -> {
+                    if (released.compareAndSet(false, true)) {
+                        free.add(rail);
+                    }
+                };
+                return on(workers[rail])
+                        .then(call(rail, element, mapper))
+                        .doOnTerminate(release)
+                        .doOnCancel(release);
+            });
+            var results = ordered
+                    ? queue.flatMapSequential(onFreeRail, rails, 1)
+                    : queue.flatMap(onFreeRail, rails, 1);
+            return results.doFinally(signal -> {
+                for (var worker : workers) {
+                    worker.dispose();
+                }
+            });
+        });
+    }
+
+    //completa en el hilo del worker: lo que venga detras con then se suscribe alli
+    private static Mono<Void> on(Scheduler.Worker worker) {
+        return Mono.create(sink -> sink.onCancel(worker.schedule(sink::success)));
+    }
+
+    private <T, R> Mono<Tuple2<Long, R>> call(int rail, Tuple2<Long, T> element,
+                                               Function<? super T, ? extends Mono<R>> mapper) {
+        var metrics = this.metrics[rail];
+        return Mono.defer(() -> {
+            var started = now();
+            Mono<R> result = mapper.apply(element.getT2());
+            return result.map(value -> Tuples.of(element.getT1(), value))
+                    .doFinally(signal -> metrics.completed(now() - started));
+        });
+    }
+
+    private long now() {
+        return scheduler.now(TimeUnit.NANOSECONDS);
+    }
+
+    private static final class Rail {
+        final AtomicLong queued = new AtomicLong();
+        final AtomicLong maxQueued = new AtomicLong();
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong busy = new AtomicLong();
+
+        void enqueue() {
+            maxQueued.accumulateAndGet(queued.incrementAndGet(), Math::max);
+        }
+
+        void dequeue() {
+            queued.decrementAndGet();
+        }
+
+        void completed(long nanos) {
+            completed.incrementAndGet();
+            busy.addAndGet(nanos);
+        }
+
+        RailStats stats(int rail, long elapsed) {
+            return new RailStats(rail, completed.get(), queued.get(), maxQueued.get(), busy.get(), elapsed);
+        }
+    }
+}
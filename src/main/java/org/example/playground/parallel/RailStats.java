@@ -0,0 +1,72 @@
+package org.example.playground.parallel;
+
+import java.time.Duration;
+
+/*
+ * Foto de los contadores de un rail de ParallelStage en un momento dado.
+ */
+public final class RailStats {
+
+    private final int rail;
+    private final long completed;
+    private final long queued;
+    private final long maxQueued;
+    private final long busyNanos;
+    private final long elapsedNanos;
+
+    RailStats(int rail, long completed, long queued, long maxQueued, long busyNanos, long elapsedNanos) {
+        this.rail = rail;
+        this.completed = completed;
+        this.queued = queued;
+        this.maxQueued = maxQueued;
+        this.busyNanos = busyNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int rail() {
+        return rail;
+    }
+
+    public long completed() {
+        return completed;
+    }
+
+    /*
+     * Elementos asignados a este rail que aun no han empezado. Con SHARED_QUEUE siempre 0: la cola es comun,
+     * ver ParallelStage.queued().
+     */
+    public long queued() {
+        return queued;
+    }
+
+    public long maxQueued() {
+        return maxQueued;
+    }
+
+    /*
+     * Tiempo con una llamada en curso.
+     */
+    public Duration busy() {
+        return Duration.ofNanos(busyNanos);
+    }
+
+    /*
+     * Elementos completados por segundo desde la primera suscripcion a la etapa.
+     */
+    public double throughput() {
+        return elapsedNanos == 0 ? 0 : completed / (elapsedNanos / 1e9);
+    }
+
+    /*
+     * Fraccion del tiempo desde la primera suscripcion en la que el rail ha estado ocupado.
+     */
+    public double utilisation() {
+        return elapsedNanos == 0 ? 0 : (double) busyNanos / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rail %d: completed=%d (%.1f/s) queued=%d maxQueued=%d busy=%.0f%%",
+                rail, completed, throughput(), queued, maxQueued, utilisation() * 100);
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.playground.primitive;
+
+final class Capacity {
+
+    //el mismo margen que ArrayList: algunas JVM reservan cabeceras en los arrays
+    static final int MAX_ARRAY = Integer.MAX_VALUE - 8;
+
+    private Capacity() {
+    }
+
+    /*
+     * Duplica hasta max; si ya esta en max no hay sitio para mas.
+     */
+    static int grow(int current, int max) {
+        if (current >= max) {
+            throw new IllegalStateException("capacity exceeded: " + max);
+        }
+        return (int) Math.min((long) current * 2, max);
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.playground.primitive;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+final class DirectIntList implements IntList {
+
+    //un ByteBuffer se indexa con int: como mucho 2^31 - 1 bytes
+    private static final int MAX_DIRECT = Integer.MAX_VALUE / Integer.BYTES;
+
+    private IntBuffer values;
+    private int size;
+
+    DirectIntList(int initialCapacity) {
+        if (initialCapacity < 1 || initialCapacity > MAX_DIRECT) {
+            throw new IllegalArgumentException("initialCapacity must be in [1, " + MAX_DIRECT + "], was "
+                    + initialCapacity);
+        }
+        this.values = allocate(initialCapacity);
+    }
+
+    @Override
+    public void add(int value) {
+        if (size == values.capacity()) {
+            var grown = allocate(Capacity.grow(values.capacity(), MAX_DIRECT));
+            grown.put(values.clear());
+            values = grown;
+        }
+        values.put(size++, value);
+    }
+
+    @Override
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + size);
+        }
+        return values.get(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int capacity() {
+        return values.capacity();
+    }
+
+    @Override
+    public boolean isDirect() {
+        return true;
+    }
+
+    @Override
+    public int[] toArray() {
+        var array = new int[size];
+        values.get(0, array);
+        return array;
+    }
+
+    private static IntBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    @Override
+    public String toString() {
+        return "DirectIntList[size=" + size + ", capacity=" + values.capacity() + "]";
+    }
+}
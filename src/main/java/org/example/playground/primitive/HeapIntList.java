@@ -0,0 +1,57 @@
+package org.example.playground.primitive;
+
+import java.util.Arrays;
+
+final class HeapIntList implements IntList {
+
+    private int[] values;
+    private int size;
+
+    HeapIntList(int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("initialCapacity must be >= 1, was " + initialCapacity);
+        }
+        this.values = new int[initialCapacity];
+    }
+
+    @Override
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Capacity.grow(values.length, Capacity.MAX_ARRAY));
+        }
+        values[size++] = value;
+    }
+
+    @Override
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + size);
+        }
+        return values[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int capacity() {
+        return values.length;
+    }
+
+    @Override
+    public boolean isDirect() {
+        return false;
+    }
+
+    @Override
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    @Override
+    public String toString() {
+        return "HeapIntList[size=" + size + ", capacity=" + values.length + "]";
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.playground.primitive;
+
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/*
+ * Lista de int sin boxing que crece sola: 4 bytes por elemento en vez de un Integer (16 bytes) mas la referencia
+ * del ArrayList. En el heap (un int[]) o fuera de el (un ByteBuffer directo, que no cuenta para el GC).
+ *
+ * No es thread-safe: se llena desde un unico hilo, como hace Flux.collect.
+ */
+public interface IntList {
+
+    void add(int value);
+
+    int get(int index);
+
+    int size();
+
+    /*
+     * Elementos que caben sin volver a crecer.
+     */
+    int capacity();
+
+    boolean isDirect();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    default void forEach(IntConsumer action) {
+        for (int i = 0, size = size(); i < size; i++) {
+            action.accept(get(i));
+        }
+    }
+
+    default IntStream stream() {
+        return IntStream.range(0, size()).map(this::get);
+    }
+
+    default int[] toArray() {
+        var array = new int[size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = get(i);
+        }
+        return array;
+    }
+
+    static IntList heap(int initialCapacity) {
+        return new HeapIntList(initialCapacity);
+    }
+
+    /*
+     * La memoria nativa se libera cuando el GC recoge la lista, no antes.
+     */
+    static IntList direct(int initialCapacity) {
+        return new DirectIntList(initialCapacity);
+    }
+}
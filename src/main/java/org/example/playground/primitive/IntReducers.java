@@ -0,0 +1,55 @@
+package org.example.playground.primitive;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.IntSummaryStatistics;
+import java.util.function.Function;
+
+/*
+ * Alternativas a collectList() para los fan-out de enteros (Flux<Integer>) que no guardan un Integer por resultado:
+ *
+ *   Flux.range(1, 1_000_000).flatMap(this::getMonoInteger).as(IntReducers.toHeap())       // IntList en un int[]
+ *   Flux.range(1, 1_000_000).flatMap(this::getMonoInteger).as(IntReducers.summary())      // count/sum/min/max
+ *
+ * - toHeap/toDirect: todos los valores en orden de llegada en una IntList (int[] o ByteBuffer directo).
+ * - summary: count, sum, min, max y media sobre la marcha sin guardar ningun valor (IntSummaryStatistics).
+ * - distinct: los valores distintos en un IntBitmap.
+ *
+ * Los Integer siguen existiendo mientras viajan por el Flux, pero mueren jovenes: lo que evitan es retener millones
+ * de ellos hasta el final, que es lo que acaba en la generacion vieja.
+ */
+public final class IntReducers {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private IntReducers() {
+    }
+
+    public static Function<Flux<Integer>, Mono<IntList>> toHeap() {
+        return toHeap(DEFAULT_CAPACITY);
+    }
+
+    /*
+     * Con el tamano esperado como initialCapacity no hay que copiar al crecer.
+     */
+    public static Function<Flux<Integer>, Mono<IntList>> toHeap(int initialCapacity) {
+        return flux -> flux.collect(() -> IntList.heap(initialCapacity), IntList::add);
+    }
+
+    public static Function<Flux<Integer>, Mono<IntList>> toDirect() {
+        return toDirect(DEFAULT_CAPACITY);
+    }
+
+    public static Function<Flux<Integer>, Mono<IntList>> toDirect(int initialCapacity) {
+        return flux -> flux.collect(() -> IntList.direct(initialCapacity), IntList::add);
+    }
+
+    public static Function<Flux<Integer>, Mono<IntSummaryStatistics>> summary() {
+        return flux -> flux.collect(IntSummaryStatistics::new, IntSummaryStatistics::accept);
+    }
+
+    public static Function<Flux<Integer>, Mono<IntBitmap>> distinct() {
+        return flux -> flux.collect(IntBitmap::new, IntBitmap::add);
+    }
+}
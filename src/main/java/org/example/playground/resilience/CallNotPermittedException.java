@@ -0,0 +1,13 @@
+package org.example.playground.resilience;
+
+/*
+ * El circuit breaker esta abierto (o medio abierto sin huecos para probar) y no deja pasar la llamada.
+ */
+public class CallNotPermittedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CallNotPermittedException(String message) {
+        super(message, null, false, false);
+    }
+}
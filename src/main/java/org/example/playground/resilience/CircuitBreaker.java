@@ -0,0 +1,214 @@
+package org.example.playground.resilience;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Circuit breaker con ventana deslizante por numero de llamadas.
+ *
+ * - CLOSED: todo pasa. Si en las ultimas windowSize llamadas (y al menos minimumCalls) el porcentaje de fallos
+ *   llega a failureRateThreshold, pasa a OPEN.
+ * - OPEN: se rechaza todo con CallNotPermittedException sin llegar al backend durante openDuration.
+ * - HALF_OPEN: pasado openDuration se dejan pasar halfOpenCalls llamadas de prueba. Si todas van bien vuelve a
+ *   CLOSED con la ventana limpia; en cuanto una falla, vuelve a OPEN.
+ *
+ * Se aplica por suscripcion, asi que si va antes de un retryWhen cada reintento tambien pasa por el breaker:
+ * monoInteger(1).transform(breaker::protect).retryWhen(...)
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final Scheduler clock;
+
+    private final boolean[] window;
+    private int windowCalls;
+    private int windowFailures;
+    private int windowIndex;
+
+    private State state = State.CLOSED;
+    //cambia con cada transicion: las llamadas de un estado anterior no cuentan en el nuevo
+    private long generation;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+    private long rejected;
+
+    private CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration openDuration,
+                           int halfOpenCalls, Scheduler clock) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException(String.format("invalid window: size=%d minimumCalls=%d",
+                    windowSize, minimumCalls));
+        }
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("failureRateThreshold must be in (0, 1], was " + failureRateThreshold);
+        }
+        if (halfOpenCalls < 1) {
+            throw new IllegalArgumentException("halfOpenCalls must be >= 1, was " + halfOpenCalls);
+        }
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = Objects.requireNonNull(openDuration, "openDuration").toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /*
+     * Ventana de 20 llamadas, minimo 10, abre con un 50% de fallos durante 5s y prueba con 3 llamadas.
+     */
+    public static CircuitBreaker ofDefaults() {
+        return of(20, 10, 0.5, Duration.ofSeconds(5), 3, Schedulers.parallel());
+    }
+
+    public static CircuitBreaker of(int windowSize, int minimumCalls, double failureRateThreshold,
+                                    Duration openDuration, int halfOpenCalls, Scheduler clock) {
+        return new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenCalls, clock);
+    }
+
+    public <T> Mono<T> protect(Mono<T> call) {
+        return Mono.defer(() -> {
+            var permit = acquire();
+            if (permit == null) {
+                return Mono.error(new CallNotPermittedException("circuit breaker is " + state()));
+            }
+            return call
+                    .doOnSuccess(value -> permit.success())
+                    .doOnError(error -> permit.failure())
+                    .doOnCancel(permit::cancel);
+        });
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public synchronized long rejected() {
+        return rejected;
+    }
+
+    public synchronized double failureRate() {
+        return windowCalls == 0 ? 0 : (double) windowFailures / windowCalls;
+    }
+
+    private synchronized Permit acquire() {
+        if (state == State.OPEN && now() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            generation++;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        switch (state) {
+            case CLOSED:
+                return new Permit(generation);
+            case HALF_OPEN:
+                if (halfOpenPermits > 0) {
+                    halfOpenPermits--;
+                    return new Permit(generation);
+                }
+                rejected++;
+                return null;
+            default:
+                rejected++;
+                return null;
+        }
+    }
+
+    private synchronized void record(Permit permit, boolean failed) {
+        if (permit.generation != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                open();
+            } else if (++halfOpenSuccesses == halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        if (window[windowIndex] && windowCalls == window.length) {
+            windowFailures--;
+        }
+        window[windowIndex] = failed;
+        windowIndex = (windowIndex + 1) % window.length;
+        windowCalls = Math.min(window.length, windowCalls + 1);
+        if (failed) {
+            windowFailures++;
+        }
+        if (windowCalls >= minimumCalls && (double) windowFailures / windowCalls >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    private synchronized void release(Permit permit) {
+        if (permit.generation == generation && state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        generation++;
+        openedAt = now();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        generation++;
+        windowCalls = 0;
+        windowFailures = 0;
+        windowIndex = 0;
+        Arrays.fill(window, false);
+    }
+
+    private long now() {
+        return clock.now(TimeUnit.NANOSECONDS);
+    }
+
+    private final class Permit {
+        private final long generation;
+        private boolean done;
+
+        Permit(long generation) {
+            this.generation = generation;
+        }
+
+        void success() {
+            finish(false);
+        }
+
+        void failure() {
+            finish(true);
+        }
+
+        void cancel() {
+            synchronized (CircuitBreaker.this) {
+                if (!done) {
+                    done = true;
+                    release(this);
+                }
+            }
+        }
+
+        private void finish(boolean failed) {
+            synchronized (CircuitBreaker.this) {
+                if (!done) {
+                    done = true;
+                    record(this, failed);
+                }
+            }
+        }
+    }
+}
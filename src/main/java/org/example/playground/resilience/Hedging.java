@@ -0,0 +1,213 @@
+package org.example.playground.resilience;
+
+import org.example.playground.metrics.LatencyHistogram;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ * Peticiones "hedged": si la llamada no ha respondido tras un retraso, se lanza una segunda identica y se queda
+ * la primera que devuelva un valor. La otra se cancela.
+ *
+ * - El retraso es fijo o un percentil de las latencias observadas (p.ej. p95): solo se duplican las llamadas
+ *   que ya van mas lentas que la mayoria. Hasta tener 20 muestras se usa el retraso inicial. La latencia que se
+ *   registra es la de la peticion entera, desde que empieza la original, tambien cuando gana el duplicado.
+ * - Cada duplicado gasta un token del RequestBudget: la carga extra queda acotada a una fraccion del trafico.
+ * - Los errores no se "hedgean": si la original falla antes del retraso, el error se propaga y no se duplica.
+ *   Si ya hay un duplicado en vuelo, se espera a el; si fallan las dos, se propaga el error de la original.
+ */
+public final class Hedging {
+
+    private static final int MIN_SAMPLES = 20;
+
+    private final Duration initialDelay;
+    private final double percentile;
+    private final RequestBudget budget;
+    private final Scheduler scheduler;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    private Hedging(Duration initialDelay, double percentile, RequestBudget budget, Scheduler scheduler) {
+        this.initialDelay = Objects.requireNonNull(initialDelay, "initialDelay");
+        this.percentile = percentile;
+        this.budget = Objects.requireNonNull(budget, "budget");
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+    }
+
+    public static Hedging fixedDelay(Duration delay, RequestBudget budget) {
+        return fixedDelay(delay, budget, Schedulers.parallel());
+    }
+
+    public static Hedging fixedDelay(Duration delay, RequestBudget budget, Scheduler scheduler) {
+        return new Hedging(delay, Double.NaN, budget, scheduler);
+    }
+
+    public static Hedging percentile(double percentile, Duration initialDelay, RequestBudget budget) {
+        return percentile(percentile, initialDelay, budget, Schedulers.parallel());
+    }
+
+    public static Hedging percentile(double percentile, Duration initialDelay, RequestBudget budget,
+                                     Scheduler scheduler) {
+        if (!(percentile > 0 && percentile < 100)) {
+            throw new IllegalArgumentException("percentile must be in (0, 100), was " + percentile);
+        }
+        return new Hedging(initialDelay, percentile, budget, scheduler);
+    }
+
+    /*
+     * call se invoca una vez por intento, asi que tiene que crear una llamada nueva cada vez:
+     * hedging.hedge(() -> monoInteger(1))
+     */
+    public <T> Mono<T> hedge(Supplier<? extends Mono<T>> call) {
+        Objects.requireNonNull(call, "call");
+        return Mono.create(sink -> new HedgedCall<>(sink, call).start());
+    }
+
+    public Duration currentDelay() {
+        if (Double.isNaN(percentile) || latencies.count() < MIN_SAMPLES) {
+            return initialDelay;
+        }
+        return Duration.ofNanos(latencies.percentile(percentile));
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long hedges() {
+        return hedges.sum();
+    }
+
+    /*
+     * Veces que el duplicado ha respondido antes que la original.
+     */
+    public long hedgeWins() {
+        return hedgeWins.sum();
+    }
+
+    private long now() {
+        return scheduler.now(TimeUnit.NANOSECONDS);
+    }
+
+    private final class HedgedCall<T> {
+        private final MonoSink<T> sink;
+        private final Supplier<? extends Mono<T>> call;
+        private Disposable primary;
+        private Disposable backup;
+        private Disposable timer;
+        private boolean done;
+        private int running;
+        private Throwable primaryError;
+        private long started;
+
+        HedgedCall(MonoSink<T> sink, Supplier<? extends Mono<T>> call) {
+            this.sink = sink;
+            this.call = call;
+        }
+
+        void start() {
+            requests.increment();
+            budget.onRequest();
+            sink.onDispose(this::disposeAll);
+            synchronized (this) {
+                running = 1;
+            }
+            started = now();
+            var primarySubscription = attempt(false);
+            var delay = currentDelay();
+            var scheduled = scheduler.schedule(this::startBackup, delay.toNanos(), TimeUnit.NANOSECONDS);
+            synchronized (this) {
+                primary = primarySubscription;
+                timer = scheduled;
+                if (done) {
+                    disposeAll();
+                }
+            }
+        }
+
+        private void startBackup() {
+            synchronized (this) {
+                if (done || running == 0 || !budget.tryAcquire()) {
+                    return;
+                }
+                running++;
+            }
+            hedges.increment();
+            var backupSubscription = attempt(true);
+            synchronized (this) {
+                backup = backupSubscription;
+                if (done) {
+                    backupSubscription.dispose();
+                }
+            }
+        }
+
+        private Disposable attempt(boolean isBackup) {
+            return Mono.defer(call::get).subscribe(
+                    value -> onValue(value, isBackup),
+                    error -> onFailure(error, isBackup),
+                    () -> onFailure(null, isBackup));
+        }
+
+        private void onValue(T value, boolean isBackup) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+            }
+            //desde la original: medir el duplicado desde su propio inicio bajaria el percentil y con el el retraso
+            latencies.record(Math.max(0, now() - started));
+            if (isBackup) {
+                hedgeWins.increment();
+            }
+            sink.success(value);
+        }
+
+        //error o completado sin valor de uno de los intentos
+        private void onFailure(Throwable error, boolean isBackup) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                if (!isBackup) {
+                    primaryError = error;
+                }
+                running--;
+                if (running > 0) {
+                    return;
+                }
+                done = true;
+                error = primaryError != null ? primaryError : error;
+            }
+            if (error == null) {
+                sink.success();
+            } else {
+                sink.error(error);
+            }
+        }
+
+        private void disposeAll() {
+            Disposable[] subscriptions;
+            synchronized (this) {
+                done = true;
+                subscriptions = new Disposable[]{primary, backup, timer};
+            }
+            for (var subscription : subscriptions) {
+                if (subscription != null) {
+                    subscription.dispose();
+                }
+            }
+        }
+    }
+}
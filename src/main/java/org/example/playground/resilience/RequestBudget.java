@@ -0,0 +1,71 @@
+package org.example.playground.resilience;
+
+/*
+ * Presupuesto de peticiones extra (hedges, reintentos) como fraccion del trafico normal.
+ *
+ * Cada peticion normal ingresa ratio tokens (hasta maxTokens) y cada peticion extra gasta uno. Con ratio 0.1
+ * como mucho un 10% de peticiones extra a la larga, mas una rafaga inicial de maxTokens.
+ * Se puede compartir entre varias cadenas para que el limite sea global.
+ */
+public final class RequestBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+    private long requests;
+    private long granted;
+    private long rejected;
+
+    private RequestBudget(double ratio, double maxTokens) {
+        if (ratio < 0) {
+            throw new IllegalArgumentException("ratio must be >= 0, was " + ratio);
+        }
+        if (maxTokens < 1) {
+            throw new IllegalArgumentException("maxTokens must be >= 1, was " + maxTokens);
+        }
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    public static RequestBudget of(double ratio, int maxTokens) {
+        return new RequestBudget(ratio, maxTokens);
+    }
+
+    public static RequestBudget unlimited() {
+        return new RequestBudget(Double.POSITIVE_INFINITY, Double.MAX_VALUE);
+    }
+
+    /*
+     * Una peticion normal.
+     */
+    public synchronized void onRequest() {
+        requests++;
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /*
+     * Intenta gastar un token para una peticion extra.
+     */
+    public synchronized boolean tryAcquire() {
+        if (tokens >= 1) {
+            tokens--;
+            granted++;
+            return true;
+        }
+        rejected++;
+        return false;
+    }
+
+    public synchronized long requests() {
+        return requests;
+    }
+
+    public synchronized long granted() {
+        return granted;
+    }
+
+    public synchronized long rejected() {
+        return rejected;
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.playground.resilience;
+
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/*
+ * Alternativa a retryWhen(Retry.fixedDelay(3, Duration.ofSeconds(2))) de monoIntegerExceptionSaveETAG:
+ *
+ *   resilience.apply(monoIntegerOne().flatMap(response -> monoIntegerException()))
+ *
+ * - Cada intento (el primero y los reintentos) pasa por el CircuitBreaker: con el circuito abierto no llega
+ *   nada al backend y CallNotPermittedException no se reintenta.
+ * - Los reintentos gastan del RequestBudget compartido: como mucho una fraccion del trafico total son reintentos,
+ *   por muchos llamantes que fallen a la vez. Sin presupuesto se propaga el error original.
+ * - Backoff exponencial con jitter, para que los reintentos de llamantes que fallaron juntos no vuelvan juntos.
+ */
+public final class Resilience {
+
+    private final CircuitBreaker breaker;
+    private final RequestBudget retryBudget;
+    private final RetryBackoffSpec retry;
+
+    private Resilience(CircuitBreaker breaker, RequestBudget retryBudget, RetryBackoffSpec backoff) {
+        this.breaker = Objects.requireNonNull(breaker, "breaker");
+        this.retryBudget = Objects.requireNonNull(retryBudget, "retryBudget");
+        //el token se coge en doBeforeRetry y no en el filtro: el filtro se evalua antes de mirar maxAttempts y
+        //gastaria un token tambien en el ultimo fallo, que ya no se reintenta
+        this.retry = Objects.requireNonNull(backoff, "backoff")
+                .modifyErrorFilter(retryable -> retryable
+                        .and(error -> !(error instanceof CallNotPermittedException)))
+                .doBeforeRetry(signal -> {
+                    if (!retryBudget.tryAcquire()) {
+                        throw Resilience.<RuntimeException>rethrow(signal.failure());
+                    }
+                });
+    }
+
+    //propaga el error original tal cual, tambien si es checked: retryWhen lo emite como error de la cadena
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E rethrow(Throwable error) throws E {
+        throw (E) error;
+    }
+
+    /*
+     * backoff puede traer su propio filtro, p.ej. Retry.backoff(3, Duration.ofSeconds(2)).jitter(0.5)
+     * .filter(error -> error.getClass().equals(RuntimeException.class)), que se respeta.
+     */
+    public static Resilience of(CircuitBreaker breaker, RequestBudget retryBudget, RetryBackoffSpec backoff) {
+        return new Resilience(breaker, retryBudget, backoff);
+    }
+
+    /*
+     * Breaker por defecto, 10% de reintentos y hasta 3 reintentos con backoff de 2s a 30s y jitter del 50%.
+     */
+    public static Resilience ofDefaults() {
+        return of(CircuitBreaker.ofDefaults(), RequestBudget.of(0.1, 10),
+                Retry.backoff(3, Duration.ofSeconds(2)).maxBackoff(Duration.ofSeconds(30)).jitter(0.5));
+    }
+
+    public <T> Mono<T> apply(Mono<T> call) {
+        return Mono.defer(() -> {
+            retryBudget.onRequest();
+            return call.transform(breaker::protect).retryWhen(retry);
+        });
+    }
+
+    public CircuitBreaker breaker() {
+        return breaker;
+    }
+
+    public RequestBudget retryBudget() {
+        return retryBudget;
+    }
+}
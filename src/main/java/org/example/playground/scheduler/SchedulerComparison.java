@@ -0,0 +1,289 @@
+package org.example.playground.scheduler;
+
+import org.example.playground.backend.LatencyMode;
+import org.example.playground.backend.SimulatedBackend;
+import org.example.playground.metrics.LatencyHistogram;
+import org.example.playground.trace.TraceSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ * Compara el mismo fan-out de llamadas bloqueantes (el Thread.sleep de getMonoInteger) descargado con subscribeOn en
+ * Schedulers.parallel(), boundedElastic() y en hilos virtuales:
+ *
+ *   Mono.when(backend.get(0).subscribeOn(scheduler), backend.get(1).subscribeOn(scheduler), ...)
+ *
+ * Se usa Mono.when y no flatMap(fn, calls): con concurrencias de 100k el drain de flatMap recorre todos los inner
+ * en cada senal y el coste pasa a ser cuadratico, lo que taparia la diferencia entre schedulers.
+ * Por cada ejecucion se mide throughput, latencia por llamada (desde que Mono.when la suscribe), pico de hilos de
+ * plataforma y pico de heap respecto al inicio. Cada ejecucion usa un scheduler nuevo que se descarta al final.
+ * Con pocos hilos y muchas llamadas parallel/boundedElastic no terminan a tiempo: se corta en timeout y se
+ * reporta lo completado hasta entonces.
+ *
+ * mvn -B compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java \
+ *     -Dexec.mainClass=org.example.playground.scheduler.SchedulerComparison -Dexec.args="100 30 10 1000 100000"
+ */
+public final class SchedulerComparison {
+
+    public enum Kind {
+        PARALLEL(() -> Schedulers.newParallel("compare-parallel", Schedulers.DEFAULT_POOL_SIZE, true)),
+        BOUNDED_ELASTIC(() -> Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "compare-elastic", 60, true)),
+        VIRTUAL(() -> VirtualThreadSchedulers.create("compare-virtual"));
+
+        private final Supplier<Scheduler> factory;
+
+        Kind(Supplier<Scheduler> factory) {
+            this.factory = factory;
+        }
+    }
+
+    private SchedulerComparison() {
+    }
+
+    /*
+     * Argumentos: latencia en ms, timeout por ejecucion en segundos y la lista de concurrencias.
+     */
+    public static void main(String[] args) {
+        var latency = Duration.ofMillis(args.length > 0 ? Long.parseLong(args[0]) : 100);
+        var timeout = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 30);
+        List<Integer> concurrency = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            concurrency.add(Integer.parseInt(args[i]));
+        }
+        if (concurrency.isEmpty()) {
+            concurrency = List.of(10, 1_000, 100_000);
+        }
+        System.out.println(Result.HEADER);
+        for (var calls : concurrency) {
+            for (var kind : Kind.values()) {
+                System.out.println(run(kind, calls, latency, timeout));
+            }
+        }
+    }
+
+    public static Result run(Kind kind, int calls, Duration latency, Duration timeout) {
+        Objects.requireNonNull(kind, "kind");
+        if (calls < 1) {
+            throw new IllegalArgumentException("calls must be >= 1, was " + calls);
+        }
+        var backend = SimulatedBackend.of(LatencyMode.BLOCKING, latency, TraceSink.noop());
+        var latencies = new LatencyHistogram();
+        var completed = new LongAdder();
+        var errors = new LongAdder();
+        var done = new CountDownLatch(1);
+        var stopped = new AtomicBoolean();
+        var footprint = new Footprint();
+        var scheduler = kind.factory.get();
+        try {
+            footprint.start();
+            var start = System.nanoTime();
+            List<Mono<Integer>> fanOut = new ArrayList<>(calls);
+            for (int i = 0; i < calls; i++) {
+                var key = i;
+                fanOut.add(Mono.defer(() -> {
+                    var issued = System.nanoTime();
+                    return backend.get(key)
+                            .subscribeOn(scheduler)
+                            .doOnNext(value -> {
+                                latencies.record(System.nanoTime() - issued);
+                                completed.increment();
+                            });
+                }).onErrorResume(error -> {
+                    //p.ej. boundedElastic rechaza tareas cuando se llena su cola; lo interrumpido al cortar no cuenta
+                    if (!stopped.get()) {
+                        errors.increment();
+                    }
+                    return Mono.empty();
+                }));
+            }
+            var subscription = Mono.when(fanOut)
+                    .doFinally(signal -> done.countDown())
+                    .subscribe();
+            var timedOut = !await(done, timeout);
+            var elapsed = Duration.ofNanos(System.nanoTime() - start);
+            stopped.set(true);
+            subscription.dispose();
+            footprint.stop();
+            return new Result(kind, calls, completed.sum(), errors.sum(), timedOut, elapsed,
+                    latencies.percentile(50), latencies.percentile(99), latencies.max(),
+                    footprint.peakThreads(), footprint.peakHeap());
+        } finally {
+            footprint.stop();
+            scheduler.dispose();
+        }
+    }
+
+    private static boolean await(CountDownLatch latch, Duration timeout) {
+        try {
+            return latch.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /*
+     * Pico de hilos de plataforma (los virtuales no cuentan en ThreadMXBean) y de heap usado, ambos respecto al
+     * inicio. El heap se muestrea cada 10ms desde un hilo aparte.
+     */
+    private static final class Footprint {
+        private final AtomicLong peakHeap = new AtomicLong();
+        private int baselineThreads;
+        private long baselineHeap;
+        private Thread sampler;
+        private volatile boolean running;
+
+        void start() {
+            var threads = ManagementFactory.getThreadMXBean();
+            System.gc();
+            baselineHeap = heapUsed();
+            baselineThreads = threads.getThreadCount();
+            threads.resetPeakThreadCount();
+            running = true;
+            sampler = Thread.ofPlatform().daemon().name("footprint-sampler").start(() -> {
+                while (running) {
+                    peakHeap.accumulateAndGet(heapUsed(), Math::max);
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        void stop() {
+            if (!running) {
+                return;
+            }
+            peakHeap.accumulateAndGet(heapUsed(), Math::max);
+            running = false;
+            sampler.interrupt();
+        }
+
+        int peakThreads() {
+            //el propio sampler no cuenta
+            return Math.max(0, ManagementFactory.getThreadMXBean().getPeakThreadCount() - baselineThreads - 1);
+        }
+
+        long peakHeap() {
+            return Math.max(0, peakHeap.get() - baselineHeap);
+        }
+
+        private static long heapUsed() {
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+    }
+
+    public static final class Result {
+
+        static final String HEADER = String.format("%-16s %8s %9s %7s %10s %10s %10s %10s %8s %10s",
+                "scheduler", "calls", "completed", "errors", "calls/s", "p50(ms)", "p99(ms)", "max(ms)",
+                "threads", "heap(MB)");
+
+        private final Kind kind;
+        private final int calls;
+        private final long completed;
+        private final long errors;
+        private final boolean timedOut;
+        private final Duration elapsed;
+        private final long p50;
+        private final long p99;
+        private final long max;
+        private final int peakThreads;
+        private final long peakHeap;
+
+        Result(Kind kind, int calls, long completed, long errors, boolean timedOut, Duration elapsed,
+               long p50, long p99, long max, int peakThreads, long peakHeap) {
+            this.kind = kind;
+            this.calls = calls;
+            this.completed = completed;
+            this.errors = errors;
+            this.timedOut = timedOut;
+            this.elapsed = elapsed;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.max = max;
+            this.peakThreads = peakThreads;
+            this.peakHeap = peakHeap;
+        }
+
+        public Kind kind() {
+            return kind;
+        }
+
+        public int calls() {
+            return calls;
+        }
+
+        public long completed() {
+            return completed;
+        }
+
+        public long errors() {
+            return errors;
+        }
+
+        public boolean timedOut() {
+            return timedOut;
+        }
+
+        public Duration elapsed() {
+            return elapsed;
+        }
+
+        /*
+         * Llamadas completadas por segundo.
+         */
+        public double throughput() {
+            return completed / (elapsed.toNanos() / 1e9);
+        }
+
+        public Duration p50() {
+            return Duration.ofNanos(p50);
+        }
+
+        public Duration p99() {
+            return Duration.ofNanos(p99);
+        }
+
+        public Duration max() {
+            return Duration.ofNanos(max);
+        }
+
+        /*
+         * Hilos de plataforma creados durante la ejecucion (pico sobre los que ya habia).
+         */
+        public int peakThreads() {
+            return peakThreads;
+        }
+
+        /*
+         * Pico de heap usado sobre el de antes de empezar, en bytes. Incluye las pilas de los hilos virtuales.
+         */
+        public long peakHeap() {
+            return peakHeap;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-16s %8d %9d %7d %10.0f %10.1f %10.1f %10.1f %8d %10.1f%s",
+                    kind, calls, completed, errors, throughput(), p50 / 1e6, p99 / 1e6, max / 1e6,
+                    peakThreads, peakHeap / (1024.0 * 1024.0), timedOut ? "  (timeout " + elapsed + ")" : "");
+        }
+    }
+}
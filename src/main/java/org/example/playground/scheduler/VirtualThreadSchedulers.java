@@ -0,0 +1,39 @@
+package org.example.playground.scheduler;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/*
+ * Scheduler de Reactor sobre un executor con un hilo virtual por tarea, para descargar llamadas bloqueantes
+ * (el Thread.sleep de getMonoInteger) sin fijar un hilo de plataforma por llamada:
+ *
+ *   Mono.fromCallable(this::blockingCall).subscribeOn(VirtualThreadSchedulers.shared())
+ *
+ * A diferencia de boundedElastic no hay tope de hilos ni cola: cada tarea tiene su hilo virtual y, mientras
+ * duerme o espera I/O, libera el hilo de plataforma que la lleva. El limite hay que ponerlo aguas arriba
+ * (flatMap(fn, n), AdaptiveLimiter).
+ */
+public final class VirtualThreadSchedulers {
+
+    private static final Scheduler SHARED = create("virtual");
+
+    private VirtualThreadSchedulers() {
+    }
+
+    /*
+     * Instancia compartida, como Schedulers.parallel(). No hay que hacerle dispose.
+     */
+    public static Scheduler shared() {
+        return SHARED;
+    }
+
+    /*
+     * Scheduler propio; los hilos se llaman name-0, name-1... El dispose cierra el executor.
+     */
+    public static Scheduler create(String name) {
+        var factory = Thread.ofVirtual().name(name + "-", 0).factory();
+        return Schedulers.fromExecutorService(Executors.newThreadPerTaskExecutor(factory), name);
+    }
+}
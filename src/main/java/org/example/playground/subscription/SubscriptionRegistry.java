@@ -0,0 +1,199 @@
+package org.example.playground.subscription;
+
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.publisher.Hooks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/*
+ * Registro de suscripciones vivas para encontrar los subscribe() cuyo Disposable nadie guarda
+ * (webfluxSubscribeForeachBehaviour, el doOnNext de webfluxTestDoOnNextCallingAnotherMono...):
+ *
+ * - Cada suscripcion se apunta en un SubscriptionScope con su origen (la linea del subscribe) y su edad.
+ * - Cerrar un scope, o que venza su timeout, cancela lo que quede vivo en el y le manda un error hacia abajo
+ *   (CancellationException o TimeoutException); dispose() del registro cierra todos.
+ * - trackAll(scope) engancha un hook de Reactor para apuntar tambien las suscripciones que no pasan por un scope.
+ *   Apunta todas, las internas de flatMap o zip incluidas, y guarda la pila de cada una: es para tests y depuracion,
+ *   no para produccion.
+ *
+ * clock es el reloj de la edad y donde se programan los timeouts.
+ */
+public final class SubscriptionRegistry implements Disposable {
+
+    private static final AtomicLong REGISTRIES = new AtomicLong();
+    private static final List<String> FRAMEWORK_PACKAGES = List.of("reactor.", "java.", "jdk.", "sun.",
+            "org.reactivestreams.", "org.junit.");
+    private static final Set<String> OWN_CLASSES = Set.of(SubscriptionRegistry.class.getName(),
+            SubscriptionScope.class.getName(), TrackingSubscriber.class.getName());
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final Scheduler clock;
+    private final String hookKey = "subscription-registry-" + REGISTRIES.incrementAndGet();
+    private final AtomicLong ids = new AtomicLong();
+    private final Set<SubscriptionScope> scopes = ConcurrentHashMap.newKeySet();
+    private final LongAdder subscribed = new LongAdder();
+    private final LongAdder finished = new LongAdder();
+    private final LongAdder disposedByScope = new LongAdder();
+    private volatile boolean disposed;
+
+    private SubscriptionRegistry(Scheduler clock) {
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    public static SubscriptionRegistry create() {
+        return create(Schedulers.parallel());
+    }
+
+    public static SubscriptionRegistry create(Scheduler clock) {
+        return new SubscriptionRegistry(clock);
+    }
+
+    public SubscriptionScope scope(String name) {
+        var scope = new SubscriptionScope(this, name);
+        scopes.add(scope);
+        if (disposed) {
+            scope.dispose();
+        }
+        return scope;
+    }
+
+    /*
+     * Pasado timeout el scope se cierra solo.
+     */
+    public SubscriptionScope scope(String name, Duration timeout) {
+        Objects.requireNonNull(timeout, "timeout");
+        var scope = scope(name);
+        scope.timeout(clock.schedule(() -> scope.expire(timeout), timeout.toNanos(), TimeUnit.NANOSECONDS));
+        return scope;
+    }
+
+    /*
+     * Apunta en scope cualquier suscripcion que se haga a partir de ahora en la JVM, hasta el dispose() del
+     * Disposable devuelto.
+     */
+    public Disposable trackAll(SubscriptionScope scope) {
+        Objects.requireNonNull(scope, "scope");
+        Hooks.onLastOperator(hookKey, scope.tracking());
+        return () -> Hooks.resetOnLastOperator(hookKey);
+    }
+
+    /*
+     * Suscripciones vivas ahora mismo.
+     */
+    public int active() {
+        return scopes.stream().mapToInt(SubscriptionScope::active).sum();
+    }
+
+    public long subscribed() {
+        return subscribed.sum();
+    }
+
+    /*
+     * Terminadas con onComplete/onError o canceladas por su suscriptor.
+     */
+    public long finished() {
+        return finished.sum();
+    }
+
+    /*
+     * Canceladas al cerrar (o vencer) su scope.
+     */
+    public long disposedByScope() {
+        return disposedByScope.sum();
+    }
+
+    /*
+     * Las suscripciones vivas, de la mas antigua a la mas nueva.
+     */
+    public List<TrackedSubscription> snapshot() {
+        var now = now();
+        List<TrackedSubscription> snapshot = new ArrayList<>();
+        for (var scope : scopes) {
+            for (var subscriber : scope.live()) {
+                snapshot.add(new TrackedSubscription(subscriber.id, scope.name(), subscriber.origin,
+                        Duration.ofNanos(Math.max(0, now - subscriber.subscribedAt))));
+            }
+        }
+        snapshot.sort(Comparator.comparing(TrackedSubscription::age).reversed()
+                .thenComparing(TrackedSubscription::id));
+        return snapshot;
+    }
+
+    /*
+     * Una linea por suscripcion viva, agrupadas por origen y con las mas antiguas primero.
+     */
+    public String leakReport() {
+        var live = snapshot();
+        if (live.isEmpty()) {
+            return "no live subscriptions";
+        }
+        var byOrigin = live.stream().collect(Collectors.groupingBy(TrackedSubscription::origin,
+                LinkedHashMap::new, Collectors.counting()));
+        var report = new StringBuilder().append(live.size()).append(" live subscription(s)");
+        byOrigin.forEach((origin, count) -> report.append(System.lineSeparator())
+                .append("\t").append(count).append(" x ").append(origin));
+        live.forEach(subscription -> report.append(System.lineSeparator()).append("\t").append(subscription));
+        return report.toString();
+    }
+
+    /*
+     * Cierra todos los scopes: para el apagado.
+     */
+    @Override
+    public void dispose() {
+        disposed = true;
+        Hooks.resetOnLastOperator(hookKey);
+        scopes.forEach(SubscriptionScope::dispose);
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    <T> CoreSubscriber<T> tracking(SubscriptionScope scope, CoreSubscriber<? super T> actual) {
+        return new TrackingSubscriber<>(ids.incrementAndGet(), scope, origin(), now(), actual);
+    }
+
+    void onRegistered() {
+        subscribed.increment();
+    }
+
+    void onUnregistered(boolean byScope) {
+        (byScope ? disposedByScope : finished).increment();
+    }
+
+    void remove(SubscriptionScope scope) {
+        //lo que se suscribio durante el dispose sigue contando hasta que termine
+        if (scope.active() == 0) {
+            scopes.remove(scope);
+        }
+    }
+
+    private long now() {
+        return clock.now(TimeUnit.NANOSECONDS);
+    }
+
+    private static String origin() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> !OWN_CLASSES.contains(frame.getClassName())
+                        && FRAMEWORK_PACKAGES.stream().noneMatch(frame.getClassName()::startsWith))
+                .findFirst()
+                .map(frame -> frame.toStackTraceElement().toString())
+                .orElse("?"));
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.playground.subscription;
+
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/*
+ * Grupo de suscripciones con el mismo dueño (una peticion, un job, un test). dispose() cancela las que sigan vivas
+ * y las que se suscriban despues se cancelan nada mas empezar. En los dos casos el suscriptor de abajo recibe
+ * onError: CancellationException si se cerro el scope, TimeoutException si vencio su timeout. Asi un
+ * track(mono).toFuture() o un zipWith terminan en error en lugar de esperar para siempre.
+ *
+ *   try (var scope = registry.scope("request-42", Duration.ofSeconds(5))) {
+ *       list.forEach(element -> scope.subscribe(monoInteger(element)));
+ *   }
+ */
+public final class SubscriptionScope implements Disposable, AutoCloseable {
+
+    private final SubscriptionRegistry registry;
+    private final String name;
+    private final Map<Long, TrackingSubscriber<?>> live = new ConcurrentHashMap<>();
+    private volatile boolean disposed;
+    private volatile Disposable timeout;
+    private volatile Duration expiredAfter;
+
+    SubscriptionScope(SubscriptionRegistry registry, String name) {
+        this.registry = registry;
+        this.name = Objects.requireNonNull(name, "name");
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public <T> Mono<T> track(Mono<T> mono) {
+        return Mono.from(this.<T>tracking().apply(mono));
+    }
+
+    public <T> Flux<T> track(Flux<T> flux) {
+        return Flux.from(this.<T>tracking().apply(flux));
+    }
+
+    /*
+     * El subscribe() "fire-and-forget" de siempre, pero la suscripcion queda a cargo del scope. El error del cierre
+     * del scope es el final esperado y no se registra; cualquier otro error va a onErrorDropped como con subscribe().
+     */
+    public Disposable subscribe(Publisher<?> source) {
+        return track(Flux.from(source)).subscribe(null, error -> {
+            if (!isDisposed() || !(error instanceof CancellationException || error instanceof TimeoutException)) {
+                Operators.onErrorDropped(error, Context.empty());
+            }
+        });
+    }
+
+    public int active() {
+        return live.size();
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        var timer = timeout;
+        if (timer != null) {
+            timer.dispose();
+        }
+        live.values().forEach(TrackingSubscriber::dispose);
+        registry.remove(this);
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    @Override
+    public void close() {
+        dispose();
+    }
+
+    <T> Function<? super Publisher<T>, ? extends Publisher<T>> tracking() {
+        return Operators.lift((scannable, actual) -> registry.<T>tracking(this, actual));
+    }
+
+    void timeout(Disposable timer) {
+        this.timeout = timer;
+    }
+
+    void expire(Duration after) {
+        expiredAfter = after;
+        dispose();
+    }
+
+    /*
+     * Error para las suscripciones que cierra el scope; uno nuevo para cada una.
+     */
+    Throwable closedError() {
+        var after = expiredAfter;
+        if (after != null) {
+            return new TimeoutException("scope " + name + " timed out after " + after.toMillis() + "ms");
+        }
+        return new CancellationException("scope " + name + " closed");
+    }
+
+    Iterable<TrackingSubscriber<?>> live() {
+        return live.values();
+    }
+
+    boolean register(TrackingSubscriber<?> subscriber) {
+        if (disposed) {
+            return false;
+        }
+        live.put(subscriber.id, subscriber);
+        registry.onRegistered();
+        //dispose() puede haber pasado entre la comprobacion y el put
+        if (disposed) {
+            subscriber.dispose();
+        }
+        return true;
+    }
+
+    void unregister(TrackingSubscriber<?> subscriber, boolean byScope) {
+        if (live.remove(subscriber.id) != null) {
+            registry.onUnregistered(byScope);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SubscriptionScope[" + name + ", active=" + live.size() + (disposed ? ", disposed" : "") + "]";
+    }
+}
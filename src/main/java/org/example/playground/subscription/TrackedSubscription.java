@@ -0,0 +1,45 @@
+package org.example.playground.subscription;
+
+import java.time.Duration;
+
+/*
+ * Foto de una suscripcion viva de SubscriptionRegistry: su scope, desde donde se suscribio y cuanto lleva viva.
+ */
+public final class TrackedSubscription {
+
+    private final long id;
+    private final String scope;
+    private final String origin;
+    private final Duration age;
+
+    TrackedSubscription(long id, String scope, String origin, Duration age) {
+        this.id = id;
+        this.scope = scope;
+        this.origin = origin;
+        this.age = age;
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public String scope() {
+        return scope;
+    }
+
+    /*
+     * La primera linea de la pila del subscribe que no es de Reactor ni del JDK.
+     */
+    public String origin() {
+        return origin;
+    }
+
+    public Duration age() {
+        return age;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d [%s] %dms at %s", id, scope, age.toMillis(), origin);
+    }
+}
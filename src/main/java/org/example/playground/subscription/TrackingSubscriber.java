@@ -0,0 +1,119 @@
+package org.example.playground.subscription;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Se pone entre el operador y su suscriptor: se registra en onSubscribe y se borra al terminar o cancelar.
+ * Cerrar el scope cancela hacia arriba y termina hacia abajo con scope.closedError(); lo que llegue de arriba
+ * despues se descarta. El cierre llega desde otro hilo (el que cierra el scope o el del timeout): si coincide con un
+ * onNext en curso, el error lo entrega ese onNext al volver, para que abajo las senales sigan en serie.
+ */
+final class TrackingSubscriber<T> implements CoreSubscriber<T>, Subscription {
+
+    final long id;
+    final SubscriptionScope scope;
+    final String origin;
+    final long subscribedAt;
+    private final CoreSubscriber<? super T> actual;
+    private final AtomicBoolean done = new AtomicBoolean();
+    //0: actual aun sin onSubscribe, 1: ya lo tiene, 2: el scope se cerro antes de que lo tuviera
+    private final AtomicInteger downstream = new AtomicInteger();
+    //1 mientras se entrega un onNext o el error del cierre; dispose lo sube a 2 si encuentra un onNext en curso
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile Subscription upstream;
+
+    TrackingSubscriber(long id, SubscriptionScope scope, String origin, long subscribedAt,
+                       CoreSubscriber<? super T> actual) {
+        this.id = id;
+        this.scope = scope;
+        this.origin = origin;
+        this.subscribedAt = subscribedAt;
+        this.actual = actual;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        upstream = subscription;
+        if (!scope.register(this)) {
+            //scope ya cerrado: no llega a empezar
+            done.set(true);
+            subscription.cancel();
+            Operators.error(actual, scope.closedError());
+            return;
+        }
+        actual.onSubscribe(this);
+        if (!downstream.compareAndSet(0, 1)) {
+            actual.onError(scope.closedError());
+        }
+    }
+
+    @Override
+    public void onNext(T value) {
+        if (done.get() || !wip.compareAndSet(0, 1)) {
+            Operators.onNextDropped(value, actual.currentContext());
+            return;
+        }
+        actual.onNext(value);
+        if (wip.decrementAndGet() != 0) {
+            //dispose ha llegado durante el onNext y ha dejado aqui su error
+            actual.onError(scope.closedError());
+        }
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        if (!done.compareAndSet(false, true)) {
+            Operators.onErrorDropped(error, actual.currentContext());
+            return;
+        }
+        scope.unregister(this, false);
+        actual.onError(error);
+    }
+
+    @Override
+    public void onComplete() {
+        if (!done.compareAndSet(false, true)) {
+            return;
+        }
+        scope.unregister(this, false);
+        actual.onComplete();
+    }
+
+    @Override
+    public Context currentContext() {
+        return actual.currentContext();
+    }
+
+    @Override
+    public void request(long n) {
+        upstream.request(n);
+    }
+
+    @Override
+    public void cancel() {
+        if (done.compareAndSet(false, true)) {
+            scope.unregister(this, false);
+            upstream.cancel();
+        }
+    }
+
+    /*
+     * Cancelacion por cierre o timeout del scope.
+     */
+    void dispose() {
+        if (done.compareAndSet(false, true)) {
+            scope.unregister(this, true);
+            upstream.cancel();
+            //si el scope se cierra durante el propio onSubscribe, el error lo manda onSubscribe despues
+            if (!downstream.compareAndSet(0, 2) && wip.getAndIncrement() == 0) {
+                actual.onError(scope.closedError());
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package org.example.playground.trace;
+
+import java.io.PrintStream;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Ring buffer sin locks (varios productores, un consumidor) vaciado por un unico hilo en segundo plano.
+ *
+ * - Los eventos estan preasignados: trazar es reservar una posicion con un CAS y copiar el patron y los argumentos.
+ * - String.format y el println (sincronizado) los hace el hilo "trace-sink", nunca el hilo que traza.
+ * - Si el buffer esta lleno la traza se descarta y se cuenta en dropped(): el camino caliente nunca se bloquea.
+ */
+public final class AsyncTraceSink implements TraceSink, AutoCloseable {
+
+    static final AsyncTraceSink SYSTEM_OUT = new AsyncTraceSink(System.out, 1 << 16);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(SYSTEM_OUT::close, "trace-sink-shutdown"));
+    }
+
+    private static final int NO_ARGS = 0;
+    private static final int LONG_ARG = 1;
+    private static final int ONE_ARG = 2;
+    private static final int TWO_ARGS = 3;
+
+    private final PrintStream out;
+    private final int mask;
+    private final Event[] events;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread drainer;
+    private volatile boolean closed;
+
+    AsyncTraceSink(PrintStream out, int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two >= 2, was " + capacity);
+        }
+        this.out = Objects.requireNonNull(out, "out");
+        this.mask = capacity - 1;
+        this.events = new Event[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            events[i] = new Event();
+            sequences.set(i, i);
+        }
+        this.drainer = new Thread(this::drain, "trace-sink");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    @Override
+    public void trace(String format) {
+        publish(NO_ARGS, format, 0, null, null);
+    }
+
+    @Override
+    public void trace(String format, long arg) {
+        publish(LONG_ARG, format, arg, null, null);
+    }
+
+    @Override
+    public void trace(String format, Object arg) {
+        publish(ONE_ARG, format, 0, arg, null);
+    }
+
+    @Override
+    public void trace(String format, Object arg1, Object arg2) {
+        publish(TWO_ARGS, format, 0, arg1, arg2);
+    }
+
+    /*
+     * Trazas descartadas porque el buffer estaba lleno.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /*
+     * Espera a que se escriba todo lo publicado hasta ahora.
+     */
+    public void flush() {
+        var target = tail.get();
+        while (head.get() < target && drainer.isAlive()) {
+            LockSupport.parkNanos(100_000);
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+        flush();
+        closed = true;
+        LockSupport.unpark(drainer);
+    }
+
+    private void publish(int kind, String format, long longArg, Object arg1, Object arg2) {
+        var position = tail.get();
+        while (true) {
+            var index = (int) (position & mask);
+            var difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    var event = events[index];
+                    event.kind = kind;
+                    event.format = format;
+                    event.longArg = longArg;
+                    event.arg1 = arg1;
+                    event.arg2 = arg2;
+                    sequences.lazySet(index, position + 1);
+                    return;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                dropped.increment();
+                return;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    private void drain() {
+        var idle = 0;
+        while (!closed || head.get() < tail.get()) {
+            var position = head.get();
+            var index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                //nada publicado todavia: espera creciente hasta 1ms
+                LockSupport.parkNanos(Math.min(1_000_000, 1_000L << Math.min(idle++, 10)));
+                continue;
+            }
+            idle = 0;
+            var event = events[index];
+            var line = event.format();
+            event.clear();
+            sequences.lazySet(index, position + mask + 1);
+            out.println(line);
+            head.lazySet(position + 1);
+        }
+    }
+
+    private static final class Event {
+        int kind;
+        String format;
+        long longArg;
+        Object arg1;
+        Object arg2;
+
+        String format() {
+            try {
+                switch (kind) {
+                    case LONG_ARG:
+                        return String.format(format, longArg);
+                    case ONE_ARG:
+                        return String.format(format, arg1);
+                    case TWO_ARGS:
+                        return String.format(format, arg1, arg2);
+                    default:
+                        return format;
+                }
+            } catch (RuntimeException e) {
+                return format + " [" + e + "]";
+            }
+        }
+
+        void clear() {
+            format = null;
+            arg1 = null;
+            arg2 = null;
+        }
+    }
+}
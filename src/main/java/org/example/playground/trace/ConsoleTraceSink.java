@@ -0,0 +1,33 @@
+package org.example.playground.trace;
+
+import java.io.PrintStream;
+import java.util.Objects;
+
+final class ConsoleTraceSink implements TraceSink {
+
+    private final PrintStream out;
+
+    ConsoleTraceSink(PrintStream out) {
+        this.out = Objects.requireNonNull(out, "out");
+    }
+
+    @Override
+    public void trace(String format) {
+        out.println(format);
+    }
+
+    @Override
+    public void trace(String format, long arg) {
+        out.println(String.format(format, arg));
+    }
+
+    @Override
+    public void trace(String format, Object arg) {
+        out.println(String.format(format, arg));
+    }
+
+    @Override
+    public void trace(String format, Object arg1, Object arg2) {
+        out.println(String.format(format, arg1, arg2));
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.playground.trace;
+
+final class NoopTraceSink implements TraceSink {
+
+    static final NoopTraceSink INSTANCE = new NoopTraceSink();
+
+    private NoopTraceSink() {
+    }
+
+    @Override
+    public void trace(String format) {
+    }
+
+    @Override
+    public void trace(String format, long arg) {
+    }
+
+    @Override
+    public void trace(String format, Object arg) {
+    }
+
+    @Override
+    public void trace(String format, Object arg1, Object arg2) {
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.playground.trace;
+
+import java.io.PrintStream;
+
+/*
+ * Destino de las trazas de los helpers del playground ("monoInteger %d", "searching[%s]"...).
+ *
+ * El formato se aplica con String.format, pero solo cuando la traza se escribe de verdad: el que traza solo
+ * pasa el patron y los argumentos. Hay sobrecargas por numero de argumentos (y una con long) para no crear
+ * arrays de varargs ni hacer boxing en el camino caliente.
+ */
+public interface TraceSink {
+
+    void trace(String format);
+
+    void trace(String format, long arg);
+
+    void trace(String format, Object arg);
+
+    void trace(String format, Object arg1, Object arg2);
+
+    /*
+     * Sink por defecto: AsyncTraceSink compartido sobre System.out, vaciado al apagar la JVM.
+     */
+    static TraceSink defaultSink() {
+        return AsyncTraceSink.SYSTEM_OUT;
+    }
+
+    /*
+     * El comportamiento de siempre: String.format + println sincronizado en el hilo que traza.
+     */
+    static TraceSink console(PrintStream out) {
+        return new ConsoleTraceSink(out);
+    }
+
+    /*
+     * capacity tiene que ser potencia de 2.
+     */
+    static AsyncTraceSink async(PrintStream out, int capacity) {
+        return new AsyncTraceSink(out, capacity);
+    }
+
+    static TraceSink noop() {
+        return NoopTraceSink.INSTANCE;
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.playground.warmup;
+
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/*
+ * Fase de calentamiento antes del primer trafico real. La primera suscripcion a una cadena paga la carga de clases
+ * de cada operador, el ensamblado en frio (sin JIT) y la creacion de los hilos de los schedulers:
+ *
+ *   var report = Warmup.of(200, 16, Duration.ofSeconds(10))
+ *           .scheduler(Schedulers.parallel(), Schedulers.DEFAULT_POOL_SIZE)
+ *           .pipeline("zip", () -> pipelines.zip(1, 2, "none"))
+ *           .run();
+ *
+ * - scheduler(s, workers): crea workers y les manda una tarea vacia, asi los hilos ya existen.
+ * - pipeline(name, template): template se invoca en cada ejecucion (una cadena nueva cada vez). Se ejecuta una vez
+ *   sola (la latencia en frio), iterations - 2 con concurrency en vuelo y otra vez sola (la latencia ya caliente).
+ * - Los errores se cuentan y no paran el calentamiento; pasado timeout se deja de calentar y el report lo indica.
+ *
+ * run() bloquea: se llama desde el hilo de arranque, nunca desde un hilo de Reactor.
+ */
+public final class Warmup {
+
+    private final int iterations;
+    private final int concurrency;
+    private final Duration timeout;
+    private final Map<Scheduler, Integer> schedulers = new LinkedHashMap<>();
+    private final Map<String, Supplier<? extends Publisher<?>>> pipelines = new LinkedHashMap<>();
+
+    private Warmup(int iterations, int concurrency, Duration timeout) {
+        if (iterations < 2 || concurrency < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "iterations must be >= 2 and concurrency >= 1, were %d and %d", iterations, concurrency));
+        }
+        this.iterations = iterations;
+        this.concurrency = concurrency;
+        this.timeout = Objects.requireNonNull(timeout, "timeout");
+    }
+
+    public static Warmup of(int iterations, int concurrency, Duration timeout) {
+        return new Warmup(iterations, concurrency, timeout);
+    }
+
+    public Warmup scheduler(Scheduler scheduler, int workers) {
+        Objects.requireNonNull(scheduler, "scheduler");
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be >= 1, was " + workers);
+        }
+        schedulers.merge(scheduler, workers, Math::max);
+        return this;
+    }
+
+    public Warmup pipeline(String name, Supplier<? extends Publisher<?>> template) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(template, "template");
+        if (pipelines.putIfAbsent(name, template) != null) {
+            throw new IllegalArgumentException("duplicate pipeline " + name);
+        }
+        return this;
+    }
+
+    public WarmupReport run() {
+        var start = System.nanoTime();
+        var deadline = start + timeout.toNanos();
+        var timedOut = !prestart(deadline);
+        var schedulersElapsed = Duration.ofNanos(System.nanoTime() - start);
+        List<WarmupReport.Stage> stages = new ArrayList<>(pipelines.size());
+        for (var pipeline : pipelines.entrySet()) {
+            if (timedOut) {
+                break;
+            }
+            var stage = new StageRun(pipeline.getKey(), pipeline.getValue());
+            timedOut = !stage.run(deadline);
+            stages.add(stage.report());
+        }
+        return new WarmupReport(stages, schedulersElapsed, Duration.ofNanos(System.nanoTime() - start), timedOut);
+    }
+
+    //false si no ha dado tiempo a que todos los workers ejecuten su tarea
+    private boolean prestart(long deadline) {
+        var total = schedulers.values().stream().mapToInt(Integer::intValue).sum();
+        var started = new CountDownLatch(total);
+        List<Disposable> workers = new ArrayList<>(total);
+        try {
+            schedulers.forEach((scheduler, count) -> {
+                for (int i = 0; i < count; i++) {
+                    var worker = scheduler.createWorker();
+                    workers.add(worker);
+                    worker.schedule(started::countDown);
+                }
+            });
+            return started.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            workers.forEach(Disposable::dispose);
+        }
+    }
+
+    private final class StageRun {
+        private final String name;
+        private final Supplier<? extends Publisher<?>> template;
+        private final AtomicLong runs = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private long first = -1;
+        private long steady = -1;
+
+        StageRun(String name, Supplier<? extends Publisher<?>> template) {
+            this.name = name;
+            this.template = template;
+        }
+
+        boolean run(long deadline) {
+            //la primera sola, para medir el frio sin mezclarlo con otras
+            var completed = Flux.concat(
+                            once().doOnNext(nanos -> first = nanos),
+                            Flux.range(0, iterations - 2).flatMap(i -> once(), concurrency).then(Mono.<Long>empty()),
+                            once().doOnNext(nanos -> steady = nanos))
+                    .then(Mono.just(true))
+                    .timeout(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())), Mono.just(false))
+                    .block();
+            return Boolean.TRUE.equals(completed);
+        }
+
+        //duracion de una ejecucion, tambien si acaba en error
+        private Mono<Long> once() {
+            return Mono.defer(() -> {
+                var start = System.nanoTime();
+                return Flux.from(template.get())
+                        .then()
+                        .onErrorResume(error -> {
+                            errors.incrementAndGet();
+                            return Mono.empty();
+                        })
+                        .then(Mono.fromSupplier(() -> {
+                            runs.incrementAndGet();
+                            return System.nanoTime() - start;
+                        }));
+            });
+        }
+
+        WarmupReport.Stage report() {
+            return new WarmupReport.Stage(name, runs.get(), errors.get(),
+                    first < 0 ? null : Duration.ofNanos(first), steady < 0 ? null : Duration.ofNanos(steady));
+        }
+    }
+}
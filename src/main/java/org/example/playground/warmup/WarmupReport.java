@@ -0,0 +1,118 @@
+package org.example.playground.warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/*
+ * Resultado de Warmup.run(): cuanto ha tardado y, por cadena, la latencia de la primera ejecucion frente a la ultima.
+ */
+public final class WarmupReport {
+
+    private final List<Stage> stages;
+    private final Duration schedulers;
+    private final Duration elapsed;
+    private final boolean timedOut;
+
+    WarmupReport(List<Stage> stages, Duration schedulers, Duration elapsed, boolean timedOut) {
+        this.stages = List.copyOf(stages);
+        this.schedulers = schedulers;
+        this.elapsed = elapsed;
+        this.timedOut = timedOut;
+    }
+
+    /*
+     * Las cadenas calentadas, en el orden en que se registraron. Si se ha agotado el timeout faltan las ultimas.
+     */
+    public List<Stage> stages() {
+        return stages;
+    }
+
+    public Optional<Stage> stage(String name) {
+        return stages.stream().filter(stage -> stage.name().equals(name)).findFirst();
+    }
+
+    /*
+     * Tiempo en arrancar los hilos de los schedulers.
+     */
+    public Duration schedulers() {
+        return schedulers;
+    }
+
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    public boolean timedOut() {
+        return timedOut;
+    }
+
+    @Override
+    public String toString() {
+        var header = String.format("warmup %dms (schedulers %dms)%s", elapsed.toMillis(), schedulers.toMillis(),
+                timedOut ? " timed out" : "");
+        if (stages.isEmpty()) {
+            return header;
+        }
+        return header + System.lineSeparator() + stages.stream()
+                .map(stage -> "  " + stage)
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+
+    public static final class Stage {
+
+        private final String name;
+        private final long runs;
+        private final long errors;
+        private final Duration first;
+        private final Duration steady;
+
+        Stage(String name, long runs, long errors, Duration first, Duration steady) {
+            this.name = name;
+            this.runs = runs;
+            this.errors = errors;
+            this.first = first;
+            this.steady = steady;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /*
+         * Ejecuciones terminadas, con valor o con error.
+         */
+        public long runs() {
+            return runs;
+        }
+
+        public long errors() {
+            return errors;
+        }
+
+        /*
+         * Latencia de la primera ejecucion (en frio); vacio si no llego a terminar.
+         */
+        public Optional<Duration> first() {
+            return Optional.ofNullable(first);
+        }
+
+        /*
+         * Latencia de la ultima ejecucion, ya caliente; vacio si no llego a terminar.
+         */
+        public Optional<Duration> steady() {
+            return Optional.ofNullable(steady);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: runs=%d errors=%d first=%s steady=%s", name, runs, errors,
+                    format(first), format(steady));
+        }
+
+        private static String format(Duration duration) {
+            return duration == null ? "-" : String.format("%.2fms", duration.toNanos() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.playground.web;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/*
+ * Un elemento del fan-out en streaming: el valor o, si esa llamada fallo, el error. Como onErrorContinue,
+ * un fallo no corta el stream: viaja como un elemento mas y el resto sigue.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FanOutResult(int key, Integer value, String error) {
+
+    public static FanOutResult success(int key, int value) {
+        return new FanOutResult(key, value, null);
+    }
+
+    public static FanOutResult failure(int key, Throwable error) {
+        return new FanOutResult(key, null, String.valueOf(error.getMessage()));
+    }
+
+    public boolean failed() {
+        return error != null;
+    }
+}
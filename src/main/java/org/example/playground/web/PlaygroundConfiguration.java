@@ -0,0 +1,27 @@
+package org.example.playground.web;
+
+import org.example.playground.backend.LatencyMode;
+import org.example.playground.backend.SimulatedBackend;
+import org.example.playground.metrics.PipelineMetrics;
+import org.example.playground.trace.TraceSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+public class PlaygroundConfiguration {
+
+    @Bean
+    public SimulatedBackend simulatedBackend(@Value("${playground.backend.mode:TIMER}") LatencyMode mode,
+                                             @Value("${playground.backend.latency:50ms}") Duration latency,
+                                             @Value("${playground.backend.trace:false}") boolean trace) {
+        return SimulatedBackend.of(mode, latency, trace ? TraceSink.defaultSink() : TraceSink.noop());
+    }
+
+    @Bean
+    public PipelineMetrics pipelineMetrics() {
+        return PipelineMetrics.create();
+    }
+}
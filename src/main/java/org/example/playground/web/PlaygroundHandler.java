@@ -0,0 +1,91 @@
+package org.example.playground.web;
+
+import org.example.playground.backend.SimulatedBackend;
+import org.example.playground.metrics.PipelineMetrics;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+@Component
+public class PlaygroundHandler {
+
+    private static final int MAX_FAN_OUT = 10_000;
+    private static final int MAX_STREAM = 10_000_000;
+
+    private final PipelineMetrics metrics;
+    private final PlaygroundPipelines pipelines;
+
+    public PlaygroundHandler(SimulatedBackend backend, PipelineMetrics metrics) {
+        this.metrics = metrics;
+        this.pipelines = new PlaygroundPipelines(backend, metrics);
+    }
+
+    public Mono<ServerResponse> integer(ServerRequest request) {
+        var number = Integer.parseInt(request.pathVariable("number"));
+        return ok(pipelines.integer(number));
+    }
+
+    public Mono<ServerResponse> zip(ServerRequest request) {
+        var first = Integer.parseInt(request.pathVariable("first"));
+        var second = Integer.parseInt(request.pathVariable("second"));
+        var offload = request.queryParam("offload").orElse("none");
+        if (!PlaygroundPipelines.OFFLOADS.contains(offload)) {
+            return ServerResponse.badRequest().bodyValue("offload must be none, subscribeOn or publishOn");
+        }
+        return ok(pipelines.zip(first, second, offload));
+    }
+
+    public Mono<ServerResponse> fanOut(ServerRequest request) {
+        var size = request.queryParam("size").map(Integer::parseInt).orElse(6);
+        var concurrency = request.queryParam("concurrency").map(Integer::parseInt).orElse(256);
+        if (size < 0 || size > MAX_FAN_OUT || concurrency < 1) {
+            return ServerResponse.badRequest()
+                    .bodyValue("size must be in [0, " + MAX_FAN_OUT + "] and concurrency >= 1");
+        }
+        return ok(pipelines.fanOut(size, concurrency, request.queryParam("parallel").isPresent()));
+    }
+
+    /*
+     * El mismo fan-out que /fan-out pero sin collectList: cada resultado se escribe en cuanto llega, como NDJSON o,
+     * si el cliente acepta text/event-stream, como SSE. flatMap solo pide a Flux.range lo que Netty consigue
+     * escribir, asi que un cliente lento frena el fan-out en lugar de acumular resultados en memoria.
+     * failEvery=n hace fallar las claves multiplo de n, que llegan como {"key":n,"error":"..."}.
+     */
+    public Mono<ServerResponse> fanOutStream(ServerRequest request) {
+        var size = request.queryParam("size").map(Integer::parseInt).orElse(6);
+        var concurrency = request.queryParam("concurrency").map(Integer::parseInt).orElse(256);
+        var failEvery = request.queryParam("failEvery").map(Integer::parseInt).orElse(0);
+        if (size < 0 || size > MAX_STREAM || concurrency < 1 || failEvery < 0) {
+            return ServerResponse.badRequest()
+                    .bodyValue("size must be in [0, " + MAX_STREAM + "], concurrency >= 1 and failEvery >= 0");
+        }
+        var results = pipelines.fanOutStream(size, concurrency, failEvery);
+        //por compatibilidad y no con contains: text/event-stream;charset=UTF-8 o con q= tambien piden SSE. Un Accept
+        //comodin (*/*, text/*) sigue recibiendo NDJSON
+        var sse = request.headers().accept().stream()
+                .anyMatch(accept -> !accept.isWildcardSubtype()
+                        && MediaType.TEXT_EVENT_STREAM.isCompatibleWith(accept));
+        if (sse) {
+            var events = results.map(result -> ServerSentEvent.builder(result)
+                    .id(String.valueOf(result.key()))
+                    .event(result.failed() ? "error" : "result")
+                    .build());
+            return ServerResponse.ok().contentType(MediaType.TEXT_EVENT_STREAM)
+                    .body(events, new ParameterizedTypeReference<ServerSentEvent<FanOutResult>>() {
+                    });
+        }
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(results, FanOutResult.class);
+    }
+
+    public Mono<ServerResponse> metrics(ServerRequest request) {
+        return ServerResponse.ok().contentType(MediaType.TEXT_PLAIN).bodyValue(metrics.toString());
+    }
+
+    private static Mono<ServerResponse> ok(Mono<?> body) {
+        return body.flatMap(value -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(value));
+    }
+}
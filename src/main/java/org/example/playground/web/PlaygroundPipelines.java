@@ -0,0 +1,101 @@
+package org.example.playground.web;
+
+import org.example.playground.backend.SimulatedBackend;
+import org.example.playground.metrics.PipelineMetrics;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/*
+ * Las cadenas de cada endpoint, sin la parte HTTP. Lo que no depende de la peticion (las etapas de PipelineMetrics,
+ * las funciones que se pasan a flatMap) se crea una sola vez aqui y se reutiliza en cada peticion; por peticion
+ * solo se ensamblan los operadores.
+ *
+ * StartupWarmup ejecuta estas mismas cadenas contra un backend sin latencia antes de que la aplicacion se de por
+ * lista. Netty ya escucha, asi que alguna peticion real puede llegar mientras tanto.
+ */
+final class PlaygroundPipelines {
+
+    static final List<String> OFFLOADS = List.of("none", "subscribeOn", "publishOn");
+
+    private final SimulatedBackend backend;
+    private final Function<Integer, Mono<Integer>> get;
+    private final Function<Mono<Integer>, Mono<Integer>> integersStage;
+    private final Map<String, Function<Mono<List<Integer>>, Mono<List<Integer>>>> zipStages = new LinkedHashMap<>();
+    private final Function<Mono<List<Integer>>, Mono<List<Integer>>> fanOutStage;
+
+    PlaygroundPipelines(SimulatedBackend backend, PipelineMetrics metrics) {
+        this.backend = Objects.requireNonNull(backend, "backend");
+        Objects.requireNonNull(metrics, "metrics");
+        this.get = backend::get;
+        this.integersStage = metrics.mono("integers");
+        OFFLOADS.forEach(offload -> zipStages.put(offload, metrics.mono("zip-" + offload)));
+        this.fanOutStage = metrics.mono("fan-out");
+    }
+
+    Mono<Integer> integer(int number) {
+        return backend.get(number).transform(integersStage);
+    }
+
+    /*
+     * offload tiene que ser uno de OFFLOADS.
+     */
+    Mono<List<Integer>> zip(int first, int second, String offload) {
+        var stage = zipStages.get(offload);
+        if (stage == null) {
+            throw new IllegalArgumentException("offload must be one of " + OFFLOADS + ", was " + offload);
+        }
+        return Mono.zip(chain(first, offload), chain(second, offload))
+                .map(tuple -> List.of(tuple.getT1(), tuple.getT2()))
+                .transform(stage);
+    }
+
+    Mono<List<Integer>> fanOut(int size, int concurrency, boolean parallel) {
+        Flux<Integer> values;
+        if (parallel) {
+            values = Flux.range(1, size)
+                    .parallel()
+                    .runOn(Schedulers.parallel())
+                    .flatMap(get)
+                    .sequential();
+        } else {
+            values = Flux.range(1, size).flatMap(get, concurrency);
+        }
+        return values.collectList().transform(fanOutStage);
+    }
+
+    Flux<FanOutResult> fanOutStream(int size, int concurrency, int failEvery) {
+        return Flux.range(1, size)
+                .flatMap(key -> call(key, failEvery)
+                        .map(value -> FanOutResult.success(key, value))
+                        .onErrorResume(error -> Mono.just(FanOutResult.failure(key, error))), concurrency);
+    }
+
+    private Mono<Integer> call(int key, int failEvery) {
+        if (failEvery > 0 && key % failEvery == 0) {
+            return backend.get(key).then(Mono.error(new RuntimeException("exception")));
+        }
+        return backend.get(key);
+    }
+
+    /*
+     * monoInteger(number) -> monoInteger(number * 11) -> monoInteger(number * 111), como en parallelMonoSubscribeOnZip
+     */
+    private Mono<Integer> chain(int number, String offload) {
+        var mono = backend.get(number);
+        if (offload.equals("subscribeOn")) {
+            mono = mono.subscribeOn(Schedulers.parallel());
+        } else if (offload.equals("publishOn")) {
+            mono = mono.publishOn(Schedulers.parallel());
+        }
+        return mono
+                .flatMap(value -> backend.get(number * 11))
+                .flatMap(value -> backend.get(number * 111));
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.playground.web;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/*
+ * GET /integers/{number}                        -> monoInteger(number)
+ * GET /zip/{first}/{second}?offload=subscribeOn -> Mono.zip de dos cadenas number, number*11, number*111
+ *                                                  (offload: none, subscribeOn o publishOn sobre Schedulers.parallel())
+ * GET /fan-out?size=6&concurrency=256&parallel  -> Flux.range(1, size).flatMap(monoInteger, concurrency),
+ *                                                  o parallel().runOn(...) como parallelOnFlux
+ * GET /fan-out/stream?size=6&failEvery=3        -> el mismo fan-out en streaming (NDJSON o SSE), un elemento por
+ *                                                  resultado y los errores como elementos
+ * GET /metrics                                  -> PipelineMetrics de cada endpoint en texto
+ */
+@Configuration(proxyBeanMethods = false)
+public class PlaygroundRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> playgroundRoutes(PlaygroundHandler handler) {
+        return RouterFunctions.route()
+                .GET("/integers/{number}", handler::integer)
+                .GET("/zip/{first}/{second}", handler::zip)
+                .GET("/fan-out", handler::fanOut)
+                .GET("/fan-out/stream", handler::fanOutStream)
+                .GET("/metrics", handler::metrics)
+                //parseInt falla al construir la respuesta, antes de que haya un Mono: defer lo convierte en onError
+                .filter((request, next) -> Mono.defer(() -> next.handle(request))
+                        .onErrorResume(NumberFormatException.class,
+                                error -> ServerResponse.badRequest().bodyValue(String.valueOf(error.getMessage()))))
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.playground.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.playground.backend.LatencyMode;
+import org.example.playground.backend.SimulatedBackend;
+import org.example.playground.metrics.PipelineMetrics;
+import org.example.playground.scheduler.VirtualThreadSchedulers;
+import org.example.playground.trace.TraceSink;
+import org.example.playground.warmup.Warmup;
+import org.example.playground.warmup.WarmupReport;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.time.Duration;
+import java.util.List;
+
+/*
+ * Calentamiento al arrancar, antes de que la aplicacion se de por lista (los ApplicationRunner van antes del
+ * ApplicationReadyEvent) y con Netty ya escuchando:
+ *
+ * - arranca los hilos de Schedulers.parallel() y del scheduler del modo del backend;
+ * - ejecuta las cadenas de PlaygroundPipelines (las mismas clases y lambdas que sirven las peticiones) contra un
+ *   backend propio sin latencia y unas PipelineMetrics propias: ni /metrics ni roundTrips() ven el calentamiento;
+ * - serializa con el ObjectMapper de los codecs los tipos que devuelven los endpoints;
+ * - pide /metrics al propio servidor: router, filtro y escritura de la respuesta en Netty.
+ *
+ * playground.warmup.enabled=false lo desactiva. Un fallo o el timeout se registran y el arranque sigue.
+ */
+@Component
+@ConditionalOnProperty(name = "playground.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Logger log = Loggers.getLogger(StartupWarmup.class);
+
+    private final LatencyMode mode;
+    private final int iterations;
+    private final Duration timeout;
+    private final ObjectProvider<ObjectMapper> objectMapper;
+    private final Environment environment;
+    private volatile WarmupReport report;
+
+    public StartupWarmup(@Value("${playground.backend.mode:TIMER}") LatencyMode mode,
+                         @Value("${playground.warmup.iterations:200}") int iterations,
+                         @Value("${playground.warmup.timeout:10s}") Duration timeout,
+                         ObjectProvider<ObjectMapper> objectMapper,
+                         Environment environment) {
+        this.mode = mode;
+        this.iterations = iterations;
+        this.timeout = timeout;
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            report = warmup().run();
+            log.info("{}", report);
+        } catch (RuntimeException e) {
+            log.warn("warmup failed, starting cold", e);
+        }
+    }
+
+    /*
+     * El ultimo calentamiento, o null si no ha terminado.
+     */
+    public WarmupReport report() {
+        return report;
+    }
+
+    private Warmup warmup() {
+        var pipelines = new PlaygroundPipelines(SimulatedBackend.of(mode, Duration.ZERO, TraceSink.noop()),
+                PipelineMetrics.create());
+        var warmup = Warmup.of(iterations, 16, timeout)
+                .scheduler(Schedulers.parallel(), Schedulers.DEFAULT_POOL_SIZE);
+        if (mode == LatencyMode.BOUNDED_ELASTIC) {
+            warmup.scheduler(Schedulers.boundedElastic(), Schedulers.DEFAULT_POOL_SIZE);
+        } else if (mode == LatencyMode.VIRTUAL_THREAD) {
+            warmup.scheduler(VirtualThreadSchedulers.shared(), 1);
+        }
+        warmup.pipeline("integers", () -> pipelines.integer(1));
+        PlaygroundPipelines.OFFLOADS.forEach(offload ->
+                warmup.pipeline("zip-" + offload, () -> pipelines.zip(1, 2, offload)));
+        warmup.pipeline("fan-out", () -> pipelines.fanOut(6, 256, false))
+                .pipeline("fan-out-parallel", () -> pipelines.fanOut(6, 256, true))
+                .pipeline("fan-out-stream", () -> pipelines.fanOutStream(6, 256, 3));
+        var mapper = objectMapper.getIfAvailable();
+        if (mapper != null) {
+            warmup.pipeline("json", () -> Mono.fromCallable(() -> mapper.writeValueAsBytes(List.of(
+                    List.of(111, 222), FanOutResult.success(1, 1), FanOutResult.failure(3, new RuntimeException())))));
+        }
+        var port = environment.getProperty("local.server.port", Integer.class);
+        if (port != null) {
+            var client = HttpClient.create().baseUrl("http://localhost:" + port);
+            warmup.pipeline("http", () -> client.get().uri("/metrics").responseContent().aggregate().asString());
+        }
+        return warmup;
+    }
+}
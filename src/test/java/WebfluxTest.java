@@ -1,47 +1,100 @@
+import org.example.playground.backend.LatencyMode;
+import org.example.playground.backend.SimulatedBackend;
+import org.example.playground.blocking.BlockingGuardExtension;
+import org.example.playground.metrics.PipelineMetrics;
+import org.example.playground.subscription.SubscriptionLeakExtension;
+import org.example.playground.trace.TraceSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
 import java.util.List;
-
-@ExtendWith(MockitoExtension.class)
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * BlockingGuardExtension: cualquier Thread.sleep, lock o IO en un hilo de Schedulers.parallel() (aqui, en las tareas
+ * del VirtualTimeScheduler) hace fallar el test con la pila y el operador que lo hizo.
+ * SubscriptionLeakExtension: un subscribe() que sigue vivo al acabar el test lo hace fallar con el origen de cada
+ * suscripcion.
+ */
+@ExtendWith({MockitoExtension.class, BlockingGuardExtension.class, SubscriptionLeakExtension.class})
 class WebfluxTest {
     /********************************************************
      ** METODOS PARA EL PLAYGROUND Y TEST CASES, NO TOCAR!***
      ********************************************************/
+    /*
+     * Las trazas de los helpers no van directas a System.out (println sincronizado y bloqueante):
+     * se encolan en un ring buffer y las escribe un unico hilo en segundo plano. TraceSink.console(System.out)
+     * para volver al comportamiento anterior.
+     */
+    private final TraceSink trace = TraceSink.defaultSink();
+    private static final Duration LATENCY = Duration.ofSeconds(4);
+    /*
+     * Los tests corren en tiempo virtual: la latencia de la "base de datos" es un Mono.delay (LatencyMode.TIMER)
+     * y Schedulers.parallel(), los delay y los retry usan el VirtualTimeScheduler. Nada duerme de verdad, asi que
+     * la suite tarda segundos y los tiempos son exactos.
+     * Los otros LatencyMode (BLOCKING, BOUNDED_ELASTIC, VIRTUAL_THREAD) hacen Thread.sleep y solo tienen sentido
+     * en tiempo real, ver SimulatedBackendTest y SchedulerComparison.
+     */
+    private final SimulatedBackend backend = SimulatedBackend.of(LatencyMode.TIMER, LATENCY, trace);
+    private VirtualTimeScheduler scheduler;
+    private PipelineMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = VirtualTimeScheduler.getOrSet();
+        metrics = PipelineMetrics.create(scheduler);
+        //si un flujo no termina en el tiempo virtual esperado, el test falla en lugar de quedarse colgado
+        StepVerifier.setDefaultTimeout(Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        StepVerifier.resetDefaultTimeout();
+        VirtualTimeScheduler.reset();
+    }
+
     private Mono<Integer> monoInteger(int number) {
-        System.out.println(String.format("monoInteger %d", number));
+        trace.trace("monoInteger %d", number);
         return this.getMonoInteger(number);
     }
 
     private Mono<Void> monoEmpty(int number) {
-        System.out.println(String.format("monoEmpty %d", number));
+        trace.trace("monoEmpty %d", number);
         return this.getMonoInteger(number).then();
     }
 
     private Mono<Integer> monoIntegerOne() {
-        System.out.println("monoIntegerOne");
+        trace.trace("monoIntegerOne");
         return this.getMonoInteger(1);
     }
 
     private Mono<Integer> monoIntegerTwo() {
-        System.out.println("monoIntegerTwo");
+        trace.trace("monoIntegerTwo");
         return this.getMonoInteger(2);
     }
 
     private Mono<Integer> monoIntegerThree() {
-        System.out.println("monoIntegerThree");
+        trace.trace("monoIntegerThree");
         return this.getMonoInteger(3);
     }
 
     private Mono<Integer> monoIntegerExceptionSaveETAG() {
-        System.out.println("monoIntegerException");
+        trace.trace("monoIntegerException");
         return monoIntegerOne().flatMap(response -> {
             return monoIntegerException();
         }).retryWhen(Retry.fixedDelay(3, Duration.ofSeconds(2)));
@@ -49,29 +102,52 @@ class WebfluxTest {
     }
 
     private Mono<Integer> monoIntegerException() {
-        System.out.println("monoIntegerException");
+        trace.trace("monoIntegerException");
         return Mono.defer(() -> {
-            System.out.println("monoIntegerException inside....");
+            trace.trace("monoIntegerException inside....");
             throw new RuntimeException("exception");
         });
     }
 
     //LLamada asincrona a base de datos
     private Mono<Integer> getMonoInteger(Integer integer) {
-        return Mono.just("searching...")
-                .map(r -> {
-                    System.out.println("searching[" + integer + "]");
-                    try {
-                        Thread.sleep(4000);
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                    System.out.println("completed[" + integer + "]");
-                    /*for(int i=0;i<10000;i++){
-                        System.out.println(integer);
-                    }*/
-                    return integer;
-                });
+        return backend.get(integer).transform(metrics.mono("getMonoInteger"));
+    }
+
+    /*
+     * Lo que tardan n llamadas a getMonoInteger una detras de otra.
+     */
+    private static Duration calls(int n) {
+        return LATENCY.multipliedBy(n);
+    }
+
+    /*
+     * Se suscribe, comprueba que no llega ninguna señal hasta justo antes de time y avanza el reloj virtual hasta
+     * time: lo que el test espere a continuacion tiene que llegar exactamente en ese instante.
+     */
+    private <T> StepVerifier.Step<T> verifyAfter(Duration time, Publisher<T> publisher) {
+        var step = StepVerifier.create(publisher).expectSubscription();
+        if (time.isZero()) {
+            return step.then(() -> scheduler.advanceTime());
+        }
+        return step.then(() -> scheduler.advanceTimeBy(time.minusMillis(1)))
+                .expectNoEvent(Duration.ZERO)
+                .then(() -> scheduler.advanceTimeBy(Duration.ofMillis(1)));
+    }
+
+    private static List<Integer> sorted(List<Integer> values) {
+        return values.stream().sorted().collect(Collectors.toList());
+    }
+
+    /*
+     * Aceleracion medida de un test: lo que habrian tardado todas las llamadas a getMonoInteger una detras de otra,
+     * dividido entre lo que ha tardado de verdad la etapa indicada.
+     */
+    private double parallelSpeedUp(String stage) {
+        System.out.println(metrics);
+        var calls = metrics.report("getMonoInteger");
+        var sequential = calls.signals() * calls.p50().toNanos();
+        return (double) sequential / metrics.report(stage).p50().toNanos();
     }
 
     /************************
@@ -83,15 +159,17 @@ class WebfluxTest {
          * Si no manejamos el error, cuando llegue al elemento 2, se corta la ejecucion,
          *  los elementos del 3-6 no se ejecutan y se corta con una excepcion el flujo
          */
-        Flux.range(1, 6)
+        var mono = Flux.range(1, 6)
                 .flatMap(element -> {
                     if (element == 2) {
                         return monoIntegerException();
                     }
                     return monoInteger(element);
                 })
-                .collectList()
-                .subscribe();
+                .collectList();
+        verifyAfter(Duration.ZERO, mono).expectErrorMessage("exception").verify();
+        //el 1 ya estaba en vuelo y se cancela, del 3 al 6 ni se llega a llamar
+        assertEquals(1, backend.roundTrips());
     }
 
     @Test
@@ -102,7 +180,7 @@ class WebfluxTest {
          * E.g. if there’s a flux of 6 elements, and error happens on element 2, then rest 3,4,5… won’t be executed,
          * instead the fallback value will be considered.
          */
-        Flux.range(1, 6)
+        var mono = Flux.range(1, 6)
                 .flatMap(element -> {
                     if (element == 2) {
                         return monoIntegerException();
@@ -112,10 +190,8 @@ class WebfluxTest {
                 .onErrorResume(error -> {
                     return Mono.just(0);
                 })
-                .collectList()
-                .subscribe(result -> {
-                    System.out.println(result);
-                });
+                .collectList();
+        verifyAfter(Duration.ZERO, mono).expectNext(List.of(0)).verifyComplete();
     }
 
     @Test
@@ -127,7 +203,7 @@ class WebfluxTest {
          * then all elements (1 to 6) except 2 will have normal execution,
          * but element 2 will have a different execution as mentioned in the consumer of onErrorContinue
          */
-        Flux.range(1, 6)
+        var mono = Flux.range(1, 6)
                 .flatMap(element -> {
                     if (element == 2) {
                         return monoIntegerException();
@@ -137,10 +213,9 @@ class WebfluxTest {
                 .onErrorContinue((error, data) -> {
                     System.out.println(data);
                 })
-                .collectList()
-                .subscribe(result -> {
-                    System.out.println(result);
-                });
+                .collectList();
+        verifyAfter(calls(1), mono).assertNext(result -> assertEquals(List.of(1, 3, 4, 5, 6), sorted(result)))
+                .verifyComplete();
     }
 
     @Test
@@ -150,7 +225,7 @@ class WebfluxTest {
          * and error happens on element 2, then rest 3,4,5,6 won’t be executed,
          * instead the fallback value will be considered.
          */
-        Flux.range(1, 6)
+        var mono = Flux.range(1, 6)
                 .flatMap(element -> {
                     if (element == 2) {
                         return monoIntegerException();
@@ -158,10 +233,8 @@ class WebfluxTest {
                     return monoInteger(element);
                 })
                 .onErrorReturn(Exception.class, -1)
-                .collectList()
-                .subscribe(result -> {
-                    System.out.println(result);
-                });
+                .collectList();
+        verifyAfter(Duration.ZERO, mono).expectNext(List.of(-1)).verifyComplete();
     }
 
     @Test
@@ -169,7 +242,7 @@ class WebfluxTest {
         /*
          * consume el error y corta la ejecucion para los siguientes elementos del stream.
          */
-        Flux.range(1, 6)
+        var mono = Flux.range(1, 6)
                 .flatMap(element -> {
                     if (element == 2) {
                         return monoIntegerException();
@@ -179,10 +252,8 @@ class WebfluxTest {
                 .doOnError(throwable -> {
                     System.out.println("something wrong happens....");
                 })
-                .collectList()
-                .subscribe(result -> {
-                    System.out.println(result);
-                });
+                .collectList();
+        verifyAfter(Duration.ZERO, mono).expectErrorMessage("exception").verify();
     }
 
     @Test
@@ -190,7 +261,7 @@ class WebfluxTest {
         /*
          * castea un error en otro, PARA la ejecucion en los siguientes elementos del stream
          */
-        Flux.range(1, 6)
+        var mono = Flux.range(1, 6)
                 .flatMap(element -> {
                     if (element == 2) {
                         return monoIntegerException();
@@ -200,10 +271,8 @@ class WebfluxTest {
                 .onErrorMap(throwable -> {
                     return new NoSuchMethodError();
                 })
-                .collectList()
-                .subscribe(result -> {
-                    System.out.println(result);
-                });
+                .collectList();
+        verifyAfter(Duration.ZERO, mono).expectError(NoSuchMethodError.class).verify();
     }
 
     /****************************
@@ -221,6 +290,8 @@ class WebfluxTest {
          * hasta encontrar otro metodo mono que tenga que llamar internamente.
          */
         monoInteger(2);
+        scheduler.advanceTimeBy(calls(1));
+        assertEquals(0, backend.roundTrips());
     }
 
     @Test
@@ -229,7 +300,7 @@ class WebfluxTest {
          * Al llamar a un metodo Mono y suscribirnos a el,
          * se realizara el flujo completo, llamando a tantos monos internos como necesite
          */
-        monoInteger(2).subscribe();
+        verifyAfter(calls(1), monoInteger(2)).expectNext(2).verifyComplete();
     }
 
     @Test
@@ -239,10 +310,11 @@ class WebfluxTest {
          * todos los flujos hijos van a realizar su flujo completo.
          * IMPORTANTE, no tenemos que poner .subscribe() a todos los metodos, basta con ponerlo en el flujo padre
          */
-        monoIntegerOne()
+        var mono = monoIntegerOne()
                 .flatMap(response -> monoIntegerTwo())
-                .flatMap(response2 -> monoIntegerThree())
-                .subscribe();
+                .flatMap(response2 -> monoIntegerThree());
+        //una detras de otra: tres llamadas
+        verifyAfter(calls(3), mono).expectNext(3).verifyComplete();
     }
 
     @Test
@@ -254,11 +326,13 @@ class WebfluxTest {
          */
         var mono1 = monoInteger(1);
         var mono2 = monoInteger(2);
-        Mono.zip(mono1, mono2).flatMap(tuple -> {
+        var mono = Mono.zip(mono1, mono2).flatMap(tuple -> {
             System.out.println(tuple.getT1());
             System.out.println(tuple.getT2());
             return monoInteger(100);
-        }).subscribe();
+        });
+        //mono1 y mono2 a la vez (una llamada) y despues monoInteger(100)
+        verifyAfter(calls(2), mono).expectNext(100).verifyComplete();
     }
 
     @Test
@@ -269,11 +343,15 @@ class WebfluxTest {
          */
         var mono1 = monoIntegerException();
         var mono2 = monoInteger(2);
-        Mono.zip(mono1, mono2).flatMap(tuple -> {
+        var mono = Mono.zip(mono1, mono2).flatMap(tuple -> {
             System.out.println(tuple.getT1());
             System.out.println(tuple.getT2());
             return monoInteger(100);
-        }).subscribe();
+        });
+        verifyAfter(Duration.ZERO, mono).expectErrorMessage("exception").verify();
+        //mono2 llega a suscribirse pero el error lo cancela: nunca devuelve su valor
+        scheduler.advanceTimeBy(calls(1));
+        assertEquals(0, metrics.report("getMonoInteger").signals());
     }
 
     @Test
@@ -288,22 +366,30 @@ class WebfluxTest {
          */
         var mono1 = monoEmpty(1);
         var mono2 = monoInteger(2);
-        Mono.zip(mono1, mono2).flatMap(tuple -> {
+        var mono = Mono.zip(mono1, mono2).flatMap(tuple -> {
             System.out.println(tuple.getT1());
             System.out.println(tuple.getT2());
             return monoInteger(100);
-        }).subscribe();
+        });
+        /*
+         * Con LatencyMode.TIMER los dos monos se suscriben a la vez; mono1 termina vacio antes de que mono2 devuelva
+         * nada, el zip termina sin valor y monoInteger(100) no se llama nunca
+         */
+        verifyAfter(calls(1), mono).verifyComplete();
+        assertEquals(2, backend.roundTrips());
         /*
          * Invertimos el orden para comprobar que mono4 se ejecuta correctamente, mirar logs de consola del tests,
          * mientras que no seguimos el flujo que hay dentro del Mono.zip
          */
         var mono3 = monoEmpty(3);
         var mono4 = monoInteger(4);
-        Mono.zip(mono4, mono3).flatMap(tuple -> {
+        var inverted = Mono.zip(mono4, mono3).flatMap(tuple -> {
             System.out.println(tuple.getT1());
             System.out.println(tuple.getT2());
             return monoInteger(100);
-        }).subscribe();
+        });
+        verifyAfter(calls(1), inverted).verifyComplete();
+        assertEquals(4, backend.roundTrips());
     }
 
 
@@ -328,8 +414,14 @@ class WebfluxTest {
         var finalMono = Mono.zip(mono1, mono2).doOnNext(tuple -> {
             System.out.println(tuple.getT1());
             System.out.println(tuple.getT2());
-        }).then();
-        StepVerifier.create(finalMono).verifyComplete();
+        }).then().transform(metrics.mono("zip"));
+        verifyAfter(calls(3), finalMono).verifyComplete();
+        /*
+         * Las dos cadenas corren a la vez: el zip tarda lo que una cadena, 3 llamadas en lugar de 6 (x2).
+         * En tiempo real y con LatencyMode.BLOCKING haria falta ademas que Schedulers.parallel() tuviese al menos
+         * 2 hilos (una CPU = un hilo = sin aceleracion)
+         */
+        assertTrue(parallelSpeedUp("zip") >= 2 * 0.95);
     }
 
     @Test
@@ -352,8 +444,15 @@ class WebfluxTest {
         var finalMono = Mono.zip(mono1, mono2).doOnNext(tuple -> {
             System.out.println(tuple.getT1());
             System.out.println(tuple.getT2());
-        }).then();
-        StepVerifier.create(finalMono).verifyComplete();
+        }).then().transform(metrics.mono("zip"));
+        verifyAfter(calls(3), finalMono).verifyComplete();
+        /*
+         * Con LatencyMode.TIMER monoInteger(1) y monoInteger(2) no bloquean el hilo que se suscribe, asi que las dos
+         * cadenas tambien van a la vez: 3 llamadas en lugar de 6 (x2).
+         * Con LatencyMode.BLOCKING, en tiempo real, monoInteger(1) y monoInteger(2) irian seguidos en el hilo que se
+         * suscribe y el resto en paralelo: 1 + 2 + (11,111 a la vez que 22,222) = 4 llamadas (x1.5)
+         */
+        assertTrue(parallelSpeedUp("zip") >= 2 * 0.95);
     }
 
     @Test
@@ -370,9 +469,10 @@ class WebfluxTest {
                 .flatMap(number -> monoInteger(number))
                 .doOnNext(value -> System.out.println(String.format("FINISHED %d", value)))
                 .sequential()
-                .collectList()
-                .then();
-        StepVerifier.create(mono).verifyComplete();
+                .collectList();
+        //el orden en que salen depende del numero de rails (CPUs)
+        verifyAfter(calls(1), mono).assertNext(result -> assertEquals(List.of(1, 2, 3, 4, 5, 6), sorted(result)))
+                .verifyComplete();
     }
 
     @Test
@@ -383,7 +483,8 @@ class WebfluxTest {
          * Cuando tengamos que interactuar con otro mono dentro de la funcion que hemos puesto en el .then(xxxx), se quedara a la espera
          * a que termine el flujo padre
          */
-        monoIntegerOne().then(monoIntegerTwo().then(monoIntegerThree())).subscribe();
+        var mono = monoIntegerOne().then(monoIntegerTwo().then(monoIntegerThree()));
+        verifyAfter(calls(3), mono).expectNext(3).verifyComplete();
     }
 
     @Test
@@ -392,7 +493,8 @@ class WebfluxTest {
          * Con Mono.defer, estamos diciendole que solo se llame cuando se haya completado el flujo padre, y  ... NI TAN SIQUIERA
          * prepara cosas hasta llegar a un Mono, NO SE LLAMA HASTA QUE ACABE EL PADRE
          */
-        monoIntegerOne().then(Mono.defer(this::monoIntegerTwo).then(Mono.defer(this::monoIntegerThree))).subscribe();
+        var mono = monoIntegerOne().then(Mono.defer(this::monoIntegerTwo).then(Mono.defer(this::monoIntegerThree)));
+        verifyAfter(calls(3), mono).expectNext(3).verifyComplete();
     }
 
 
@@ -405,15 +507,17 @@ class WebfluxTest {
      */
     @Test
     void erroresmanejo() {
-        monoIntegerException()
-                .then(monoIntegerTwo())
-                .subscribe();
+        var mono = monoIntegerException()
+                .then(monoIntegerTwo());
+        verifyAfter(Duration.ZERO, mono).expectErrorMessage("exception").verify();
+        //monoIntegerTwo se construye pero nunca se suscribe
+        assertEquals(0, backend.roundTrips());
     }
 
 
     @Test
     void erroresmanejoFlux() {
-        Flux.range(0, 3)
+        var mono = Flux.range(0, 3)
                 .flatMap(value -> {
                     if (value == 1) {
                         return monoIntegerException()
@@ -429,39 +533,45 @@ class WebfluxTest {
                 .onErrorContinue((error, data) -> {
                     System.out.printf("error for <%s>%n", data);
                 })
-                .collectList()
-                .subscribe();
-
+                .collectList();
+        verifyAfter(calls(1), mono).assertNext(result -> assertEquals(List.of(0, 2), sorted(result)))
+                .verifyComplete();
     }
 
 
     @Test
     void testingNULL() {
-        monoIntegerOne().flatMap(response -> Mono.empty()).flatMap(response2 -> monoInteger(99)).subscribe();
+        var mono = monoIntegerOne().flatMap(response -> Mono.empty()).flatMap(response2 -> monoInteger(99));
+        //el flatMap de un vacio no se ejecuta: monoInteger(99) nunca se llama
+        verifyAfter(calls(1), mono).verifyComplete();
+        assertEquals(1, backend.roundTrips());
     }
 
     @Test
     void delay() {
         var mono = monoIntegerTwo().delayElement(Duration.ofSeconds(6)).doOnNext(response ->
                 System.out.println(String.format("estas dentro %d", response)));
-        StepVerifier.create(mono).verifyComplete();
+        //delayElement retrasa el valor, no se lo come: llega el 2 tras la llamada y los 6 segundos
+        verifyAfter(calls(1).plusSeconds(6), mono).expectNext(2).verifyComplete();
     }
 
     @Test
     void errorsOperator() {
-        monoIntegerOne().flatMap(response -> monoIntegerTwo().flatMap(response2 -> monoIntegerException()))
+        var chain = monoIntegerOne().flatMap(response -> monoIntegerTwo().flatMap(response2 -> monoIntegerException()))
                 .onErrorMap(throwable -> {
                     var t = throwable;
                     return new RuntimeException();
-                }).subscribe();
+                });
+        verifyAfter(calls(2), chain)
+                .expectErrorMatches(error -> error.getClass() == RuntimeException.class && error.getMessage() == null)
+                .verify();
 
         var mono1 = monoIntegerOne();
         var mono2 = monoIntegerTwo();
         var monoError = monoIntegerException().onErrorMap(error -> new RuntimeException());
 
-        Mono.zip(mono1, mono2, monoError).subscribe(tuple -> {
-            var t = tuple;
-        });
+        //el error de monoError llega antes que los valores de mono1 y mono2 y cancela el zip
+        verifyAfter(Duration.ZERO, Mono.zip(mono1, mono2, monoError)).expectError(RuntimeException.class).verify();
     }
 
 
@@ -470,18 +580,20 @@ class WebfluxTest {
         //Mono Flux
         var mono1 = monoIntegerOne();
         var mono2 = monoIntegerTwo();
-        mono1.map(response1 -> {
+        var first = mono1.map(response1 -> {
             System.out.println(response1);
             return 111111;
-        }).subscribe(finalReponse -> {
+        }).doOnNext(finalReponse -> {
             System.out.println(finalReponse);
         });
-        mono2.flatMap(response2 -> {
+        var second = mono2.flatMap(response2 -> {
             System.out.println(response2);
             return monoIntegerOne();
-        }).subscribe(response -> {
+        }).doOnNext(response -> {
             System.out.println(response);
         });
+        verifyAfter(calls(1), first).expectNext(111111).verifyComplete();
+        verifyAfter(calls(2), second).expectNext(1).verifyComplete();
     }
 
     @Test
@@ -493,7 +605,11 @@ class WebfluxTest {
             System.out.println("monoIntegerOne completed");
             System.out.println("monoIntegerTwo completed");
         }).then();
-        StepVerifier.create(mono).verifyComplete();
+        /*
+         * Con LatencyMode.BLOCKING las dos llamadas irian seguidas en el hilo que se suscribe (2 llamadas);
+         * con TIMER ninguna bloquea y el zip tarda una sola llamada
+         */
+        verifyAfter(calls(1), mono).verifyComplete();
     }
 
     @Test
@@ -504,7 +620,7 @@ class WebfluxTest {
         var mono = Mono.zip(mono1, mono2).doOnNext(tuple -> {
             System.out.println(tuple);
         }).then();
-        StepVerifier.create(mono).verifyComplete();
+        verifyAfter(calls(1), mono).verifyComplete();
     }
 
     @Test
@@ -522,7 +638,11 @@ class WebfluxTest {
             }).subscribe();
         });
 
-        StepVerifier.create(mono).expectNext(1).verifyComplete();
+        verifyAfter(calls(1), mono).expectNext(1).verifyComplete();
+        //mono3 se suscribe por su cuenta en el doOnNext: el test termina sin esperarlo, acaba una llamada despues
+        assertEquals(2, metrics.report("getMonoInteger").signals());
+        scheduler.advanceTimeBy(calls(1));
+        assertEquals(3, metrics.report("getMonoInteger").signals());
     }
 
     @Test
@@ -531,8 +651,9 @@ class WebfluxTest {
         var mono = monoIntegerOne().flatMap(response -> {
             return monoIntegerException();
         }).retryWhen(Retry.fixedDelay(3, Duration.ofSeconds(2)).filter(element -> element.getClass().equals(RuntimeException.class)));
-        StepVerifier.create(mono).verifyError();
-
+        //cada intento repite monoIntegerOne: 4 intentos de una llamada mas 3 esperas de 2 segundos
+        verifyAfter(calls(4).plusSeconds(3 * 2), mono).expectErrorMatches(Exceptions::isRetryExhausted).verify();
+        assertEquals(4, backend.roundTrips());
     }
 
     @Test
@@ -545,7 +666,7 @@ class WebfluxTest {
         });
 
 
-        StepVerifier.create(publisher).verifyError();
+        verifyAfter(calls(1), publisher).expectErrorMessage("exception").verify();
         //.retryWhen(Retry.fixedDelay(3, Duration.ofSeconds(2)).filter(element->element.getClass().equals(RuntimeException.class))).subscribe();
     }
 
@@ -555,13 +676,17 @@ class WebfluxTest {
         var publisher = Flux.fromIterable(list)
                 .flatMap(this::monoInteger);
 
-        publisher.subscribe();
+        verifyAfter(calls(1), publisher.collectList()).assertNext(result -> assertEquals(list, sorted(result)))
+                .verifyComplete();
     }
 
     @Test
     void webfluxSubscribeForeachBehaviour() {
         var list = List.of(1, 2, 3, 4, 5, 6);
         list.forEach(element -> monoInteger(element).subscribe());
+        //cada subscribe lanza su llamada por separado, todas a la vez
+        scheduler.advanceTimeBy(calls(1));
+        assertEquals(list.size(), metrics.report("getMonoInteger").signals());
     }
 
 }
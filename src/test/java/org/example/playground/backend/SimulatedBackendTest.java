@@ -0,0 +1,87 @@
+package org.example.playground.backend;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimulatedBackendTest {
+
+    private static final int IN_FLIGHT = 2000;
+
+    @Test
+    void timerModeKeepsThousandsOfCallsInFlight() {
+        /*
+         * Con Mono.delay no se bloquea ningun hilo, las 2000 llamadas esperan a la vez
+         * y el tiempo total es el de una sola llamada, no el de 2000.
+         */
+        var backend = SimulatedBackend.timer(Duration.ofMillis(500));
+        var elapsed = fanOut(backend, IN_FLIGHT);
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(3)) < 0, "elapsed " + elapsed);
+    }
+
+    @Test
+    void blockingModePinsParallelWorkers() {
+        /*
+         * El Thread.sleep se ejecuta en el hilo de Schedulers.parallel(): como mucho hay tantas llamadas
+         * en vuelo como hilos tiene el pool, el resto espera en cola.
+         */
+        var backend = SimulatedBackend.blocking(Duration.ofMillis(100));
+        var workers = Schedulers.DEFAULT_POOL_SIZE;
+        var calls = workers * 3;
+        var start = System.nanoTime();
+        var mono = Flux.range(1, calls)
+                .flatMap(key -> backend.get(key).subscribeOn(Schedulers.parallel()), calls)
+                .count();
+        StepVerifier.create(mono).expectNext((long) calls).verifyComplete();
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+        assertTrue(elapsed.compareTo(Duration.ofMillis(300)) >= 0, "elapsed " + elapsed);
+    }
+
+    @Test
+    void boundedElasticModeOffloadsTheSleep() {
+        var backend = SimulatedBackend.boundedElastic(Duration.ofMillis(50));
+        var threads = ConcurrentHashMap.<String>newKeySet();
+        var mono = Flux.range(1, 20)
+                .flatMap(key -> backend.get(key).doOnNext(value -> threads.add(Thread.currentThread().getName())))
+                .count();
+        StepVerifier.create(mono).expectNext(20L).verifyComplete();
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("boundedElastic")), threads.toString());
+    }
+
+    @Test
+    void virtualThreadModeKeepsThousandsOfCallsInFlight() {
+        var backend = SimulatedBackend.virtualThreads(Duration.ofMillis(500));
+        var elapsed = fanOut(backend, IN_FLIGHT);
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(3)) < 0, "elapsed " + elapsed);
+    }
+
+    @Test
+    void returnsTheRequestedKey() {
+        for (var mode : LatencyMode.values()) {
+            StepVerifier.create(SimulatedBackend.of(mode, Duration.ofMillis(1)).get(7))
+                    .expectNext(7)
+                    .verifyComplete();
+        }
+    }
+
+    private static Duration fanOut(SimulatedBackend backend, int calls) {
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+        var start = System.nanoTime();
+        var mono = Flux.range(1, calls)
+                .flatMap(backend::get, calls)
+                .doOnNext(seen::add)
+                .then(Mono.fromCallable(seen::size));
+        StepVerifier.create(mono).expectNext(calls).verifyComplete();
+        assertEquals(calls, seen.size());
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.playground.batch;
+
+import org.example.playground.backend.SimulatedBackend;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchLoaderTest {
+
+    private final SimulatedBackend backend = SimulatedBackend.timer(Duration.ofMillis(50));
+
+    @Test
+    void concurrentLookupsShareOneRoundTrip() {
+        /*
+         * Mismo patron que webfluxSubscribeBehaviour: flatMap sobre 6 elementos.
+         * Sin loader son 6 llamadas al backend, con loader es una.
+         */
+        var loader = BatchLoader.create(backend::getAll, 100, Duration.ofMillis(100));
+        var publisher = Flux.fromIterable(List.of(1, 2, 3, 4, 5, 6))
+                .flatMap(loader::load)
+                .collectSortedList();
+
+        StepVerifier.create(publisher).expectNext(List.of(1, 2, 3, 4, 5, 6)).verifyComplete();
+        assertEquals(1, backend.roundTrips());
+        assertEquals(1, loader.batches());
+    }
+
+    @Test
+    void batchIsSentAsSoonAsItIsFull() {
+        var loader = BatchLoader.create(backend::getAll, 4, Duration.ofSeconds(30));
+        var publisher = Flux.range(1, 12)
+                .flatMap(loader::load)
+                .collectSortedList();
+
+        StepVerifier.create(publisher)
+                .expectNextMatches(list -> list.size() == 12)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertEquals(3, backend.roundTrips());
+    }
+
+    @Test
+    void repeatedKeysAreRequestedOnce() {
+        var requested = new ArrayList<List<Integer>>();
+        var loader = BatchLoader.<Integer, Integer>create(keys -> {
+            requested.add(keys);
+            return backend.getAll(keys);
+        }, 100, Duration.ofMillis(100));
+        var publisher = Flux.just(1, 1, 2, 1)
+                .flatMap(loader::load)
+                .collectSortedList();
+
+        StepVerifier.create(publisher).expectNext(List.of(1, 1, 1, 2)).verifyComplete();
+        assertEquals(List.of(List.of(1, 2)), requested);
+    }
+
+    @Test
+    void perElementErrorsAreStillDelivered() {
+        /*
+         * Como en errorsDifferentTypes: el elemento 2 falla sin pasar por el backend,
+         * el resto se resuelve en un unico lote y onErrorContinue sigue funcionando por elemento.
+         */
+        var loader = BatchLoader.create(backend::getAll, 100, Duration.ofMillis(100));
+        var dropped = new ArrayList<Object>();
+        var publisher = Flux.range(1, 6)
+                .flatMap(element -> {
+                    if (element == 2) {
+                        return Mono.<Integer>error(new RuntimeException("exception"));
+                    }
+                    return loader.load(element);
+                })
+                .onErrorContinue((error, data) -> dropped.add(data))
+                .collectSortedList();
+
+        StepVerifier.create(publisher).expectNext(List.of(1, 3, 4, 5, 6)).verifyComplete();
+        assertEquals(List.of(2), dropped);
+        assertEquals(1, backend.roundTrips());
+    }
+
+    @Test
+    void failedBatchFailsOnlyItsOwnElements() {
+        var calls = new AtomicInteger();
+        var loader = BatchLoader.<Integer, Integer>create(keys -> {
+            if (calls.incrementAndGet() == 1) {
+                return Mono.error(new IllegalStateException("backend down"));
+            }
+            return backend.getAll(keys);
+        }, 3, Duration.ofSeconds(30));
+
+        var first = Flux.range(1, 3).flatMap(key -> loader.load(key).materialize()).collectList();
+        StepVerifier.create(first)
+                .expectNextMatches(signals -> signals.stream().allMatch(signal -> signal.isOnError()
+                        && signal.getThrowable() instanceof IllegalStateException))
+                .verifyComplete();
+
+        var second = Flux.range(4, 3).flatMap(loader::load).collectSortedList();
+        StepVerifier.create(second).expectNext(List.of(4, 5, 6)).verifyComplete();
+    }
+
+    @Test
+    void keysMissingFromTheBatchCompleteEmpty() {
+        var loader = BatchLoader.<Integer, Integer>create(keys -> Mono.just(Map.of(1, 10)), 100, Duration.ofMillis(100));
+        var publisher = Mono.zip(loader.load(1), loader.load(2).defaultIfEmpty(-1));
+
+        StepVerifier.create(publisher)
+                .expectNextMatches(tuple -> tuple.getT1() == 10 && tuple.getT2() == -1)
+                .verifyComplete();
+        assertEquals(1, loader.batches());
+    }
+}
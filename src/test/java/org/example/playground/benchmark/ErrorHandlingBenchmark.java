@@ -0,0 +1,90 @@
+package org.example.playground.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Variantes de manejo de errores de WebfluxTest (onErrorResume, onErrorContinue, onErrorReturn)
+ * sobre un Flux.range en el que falla uno de cada errorEvery elementos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorHandlingBenchmark {
+
+    private static final RuntimeException EXCEPTION = new RuntimeException("exception");
+
+    @Param({"6", "1000"})
+    int elements;
+
+    @Param({"2", "100"})
+    int errorEvery;
+
+    @Benchmark
+    public List<Integer> noErrorHandling() {
+        return source()
+                .collectList()
+                .onErrorReturn(List.of())
+                .block();
+    }
+
+    @Benchmark
+    public List<Integer> onErrorResume() {
+        return source()
+                .onErrorResume(error -> Mono.just(0))
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public List<Integer> onErrorContinue() {
+        return source()
+                .onErrorContinue((error, data) -> {
+                })
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public List<Integer> onErrorReturn() {
+        return source()
+                .onErrorReturn(Exception.class, -1)
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public List<Integer> perElementOnErrorResume() {
+        return Flux.range(1, elements)
+                .flatMap(element -> lookup(element).onErrorResume(error -> Mono.empty()))
+                .collectList()
+                .block();
+    }
+
+    private Flux<Integer> source() {
+        return Flux.range(1, elements).flatMap(this::lookup);
+    }
+
+    private Mono<Integer> lookup(int element) {
+        if (element % errorEvery == 0) {
+            return Mono.error(EXCEPTION);
+        }
+        return Mono.fromSupplier(() -> element);
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.playground.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Coste de encadenar flatMap como en callMonoWithFatherSubscription:
+ * monoIntegerOne().flatMap(monoIntegerTwo).flatMap(monoIntegerThree)...
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlatMapChainBenchmark {
+
+    @Param({"1", "3", "10"})
+    int depth;
+
+    @Benchmark
+    public Integer flatMapChain() {
+        var mono = lookup(1);
+        for (int i = 2; i <= depth; i++) {
+            var next = i;
+            mono = mono.flatMap(response -> lookup(next));
+        }
+        return mono.block();
+    }
+
+    @Benchmark
+    public Integer thenChain() {
+        var mono = lookup(1);
+        for (int i = 2; i <= depth; i++) {
+            mono = mono.then(lookup(i));
+        }
+        return mono.block();
+    }
+
+    private static Mono<Integer> lookup(int key) {
+        return Mono.fromSupplier(() -> key);
+    }
+}
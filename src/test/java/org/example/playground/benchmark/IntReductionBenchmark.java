@@ -0,0 +1,80 @@
+package org.example.playground.benchmark;
+
+import org.example.playground.primitive.IntBitmap;
+import org.example.playground.primitive.IntList;
+import org.example.playground.primitive.IntReducers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import java.util.HashSet;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * collectList() frente a IntReducers al final de un fan-out de enteros. Con -prof gc (por defecto) se ve la
+ * asignacion por operacion: los Integer de Flux.range por encima de 127 salen en todas las variantes; la diferencia
+ * es el ArrayList, sus copias al crecer y lo que hay que retener hasta el final.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntReductionBenchmark {
+
+    @Param({"1000", "1000000"})
+    int elements;
+
+    @Benchmark
+    public List<Integer> collectList() {
+        return source().collectList().block();
+    }
+
+    @Benchmark
+    public IntList heapIntList() {
+        return source().as(IntReducers.toHeap()).block();
+    }
+
+    @Benchmark
+    public IntList directIntList() {
+        return source().as(IntReducers.toDirect()).block();
+    }
+
+    @Benchmark
+    public IntSummaryStatistics collectListThenSummary() {
+        return source().collectList()
+                .map(list -> list.stream().mapToInt(Integer::intValue).summaryStatistics())
+                .block();
+    }
+
+    @Benchmark
+    public IntSummaryStatistics summary() {
+        return source().as(IntReducers.summary()).block();
+    }
+
+    @Benchmark
+    public Set<Integer> distinctHashSet() {
+        return source().collect(HashSet<Integer>::new, Set::add).block();
+    }
+
+    @Benchmark
+    public IntBitmap distinctBitmap() {
+        return source().as(IntReducers.distinct()).block();
+    }
+
+    private Flux<Integer> source() {
+        return Flux.range(0, elements);
+    }
+}
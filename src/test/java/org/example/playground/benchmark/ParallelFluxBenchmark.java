@@ -0,0 +1,57 @@
+package org.example.playground.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * parallel().runOn().sequential() como en parallelOnFlux, frente a un flatMap secuencial
+ * sobre los mismos elementos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelFluxBenchmark {
+
+    @Param({"6", "1000"})
+    int elements;
+
+    @Benchmark
+    public List<Integer> parallelRunOnSequential() {
+        return Flux.range(1, elements)
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .flatMap(ParallelFluxBenchmark::lookup)
+                .sequential()
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public List<Integer> flatMap() {
+        return Flux.range(1, elements)
+                .flatMap(ParallelFluxBenchmark::lookup)
+                .collectList()
+                .block();
+    }
+
+    private static Mono<Integer> lookup(int key) {
+        return Mono.fromSupplier(() -> key);
+    }
+}
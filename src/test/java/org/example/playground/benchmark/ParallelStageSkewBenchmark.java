@@ -0,0 +1,67 @@
+package org.example.playground.benchmark;
+
+import org.example.playground.parallel.ParallelStage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * ParallelStage con latencias desiguales: uno de cada rails elementos tarda slowMs y el resto 1ms.
+ * Con ROUND_ROBIN y prefetch grande los lentos se acumulan en el mismo rail; SHARED_QUEUE los reparte.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelStageSkewBenchmark {
+
+    private static final int ELEMENTS = 128;
+    private static final int RAILS = 4;
+
+    @Param({"ROUND_ROBIN", "SHARED_QUEUE"})
+    ParallelStage.Dispatch dispatch;
+
+    @Param({"1", "256"})
+    int prefetch;
+
+    @Param({"10"})
+    int slowMs;
+
+    private ParallelStage stage;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        stage = ParallelStage.of(dispatch, RAILS, prefetch, false, Schedulers.parallel());
+    }
+
+    @Benchmark
+    public List<Integer> skewed() {
+        return Flux.range(0, ELEMENTS)
+                .transform(stage.flatMap(this::call))
+                .collectList()
+                .block();
+    }
+
+    private Mono<Integer> call(int element) {
+        var latency = element % RAILS == 0 ? Duration.ofMillis(slowMs) : Duration.ofMillis(1);
+        return Mono.delay(latency).thenReturn(element);
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.playground.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * subscribeOn frente a publishOn con el patron de parallelMonoSubscribeOnZip / parallelMonoPublishOnZip:
+ * dos cadenas de tres llamadas combinadas con Mono.zip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerHopBenchmark {
+
+    @Benchmark
+    public Object subscribeOnZip() {
+        var mono1 = lookup(1)
+                .subscribeOn(Schedulers.parallel())
+                .flatMap(number -> lookup(11))
+                .flatMap(number -> lookup(111));
+        var mono2 = lookup(2)
+                .subscribeOn(Schedulers.parallel())
+                .flatMap(number -> lookup(22))
+                .flatMap(number -> lookup(222));
+        return Mono.zip(mono1, mono2).block();
+    }
+
+    @Benchmark
+    public Object publishOnZip() {
+        var mono1 = lookup(1)
+                .publishOn(Schedulers.parallel())
+                .flatMap(number -> lookup(11))
+                .flatMap(number -> lookup(111));
+        var mono2 = lookup(2)
+                .publishOn(Schedulers.parallel())
+                .flatMap(number -> lookup(22))
+                .flatMap(number -> lookup(222));
+        return Mono.zip(mono1, mono2).block();
+    }
+
+    @Benchmark
+    public Object sameThreadZip() {
+        var mono1 = lookup(1)
+                .flatMap(number -> lookup(11))
+                .flatMap(number -> lookup(111));
+        var mono2 = lookup(2)
+                .flatMap(number -> lookup(22))
+                .flatMap(number -> lookup(222));
+        return Mono.zip(mono1, mono2).block();
+    }
+
+    private static Mono<Integer> lookup(int key) {
+        return Mono.fromSupplier(() -> key);
+    }
+}
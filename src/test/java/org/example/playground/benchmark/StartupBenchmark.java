@@ -0,0 +1,158 @@
+package org.example.playground.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import org.example.playground.PlaygroundApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Latencia de las primeras peticiones tras un despliegue, con y sin StartupWarmup. Cada medida es un JVM nuevo
+ * (SingleShotTime, una iteracion por fork): lo que se mide es justo lo que el calentamiento quiere quitar.
+ *
+ * - firstRequests: la aplicacion ya ha arrancado (y calentado, si warmup); las primeras `requests` peticiones
+ *   seguidas a /integers, /zip y /fan-out. Con requests=1 es el tiempo hasta la primera respuesta.
+ * - startupToFirstRequests: lo mismo contando el arranque, para ver lo que cuesta el calentamiento.
+ *
+ * El cliente HTTP se calienta antes contra un servidor del JDK, asi su arranque en frio no cuenta en ningun caso.
+ * Rapido: -Djmh.args="StartupBenchmark -f 3"
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+
+    private static final String[] PATHS = {"/integers/1", "/zip/1/2", "/fan-out?size=6"};
+
+    @State(Scope.Benchmark)
+    public static class Started {
+
+        @Param({"true", "false"})
+        public boolean warmup;
+
+        @Param({"1", "100"})
+        public int requests;
+
+        private ConfigurableApplicationContext application;
+        private int port;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            warmClient();
+            application = start(warmup);
+            port = port(application);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            application.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Cold {
+
+        @Param({"true", "false"})
+        public boolean warmup;
+
+        @Param({"1", "100"})
+        public int requests;
+
+        private ConfigurableApplicationContext application;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            warmClient();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+
+    @Benchmark
+    public int firstRequests(Started state) throws IOException {
+        return send(state.port, state.requests);
+    }
+
+    @Benchmark
+    public int startupToFirstRequests(Cold state) throws IOException {
+        state.application = start(state.warmup);
+        return send(port(state.application), state.requests);
+    }
+
+    //como argumentos y no con properties(): esas son las de por defecto y application.properties las pisa
+    private static ConfigurableApplicationContext start(boolean warmup) {
+        return new SpringApplicationBuilder(PlaygroundApplication.class)
+                .run("--server.port=0",
+                        "--playground.backend.latency=1ms",
+                        "--playground.warmup.enabled=" + warmup,
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=warn");
+    }
+
+    private static int port(ConfigurableApplicationContext application) {
+        return application.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    //HttpURLConnection (keep-alive) y no un cliente sobre Netty: calentar el cliente no calienta el servidor
+    private static int send(int port, int requests) throws IOException {
+        var bytes = 0;
+        for (int i = 0; i < requests; i++) {
+            bytes += get(URI.create("http://localhost:" + port + PATHS[i % PATHS.length]).toURL());
+        }
+        return bytes;
+    }
+
+    private static int get(URL url) throws IOException {
+        var connection = (HttpURLConnection) url.openConnection();
+        if (connection.getResponseCode() != 200) {
+            throw new IllegalStateException(url + " returned " + connection.getResponseCode());
+        }
+        try (var body = connection.getInputStream()) {
+            return body.readAllBytes().length;
+        }
+    }
+
+    private static void warmClient() throws IOException {
+        var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, 2);
+            exchange.getResponseBody().write("ok".getBytes());
+            exchange.close();
+        });
+        server.start();
+        try {
+            var url = URI.create("http://localhost:" + server.getAddress().getPort() + "/").toURL();
+            for (int i = 0; i < 200; i++) {
+                get(url);
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+}
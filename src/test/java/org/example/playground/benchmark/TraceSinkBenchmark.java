@@ -0,0 +1,116 @@
+package org.example.playground.benchmark;
+
+import org.example.playground.trace.AsyncTraceSink;
+import org.example.playground.trace.TraceSink;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Cuanto throughput se pierde trazando con System.out.println(String.format(...)) en el camino caliente
+ * frente al AsyncTraceSink. La salida va a un PrintStream que descarta los bytes, asi que solo se mide
+ * el coste de formatear y de la sincronizacion del PrintStream, no el de la consola.
+ *
+ * - trace: varios hilos trazando a la vez (@Threads(4)).
+ * - parallelRails: el patron de parallelOnFlux, trazando en cada rail.
+ *
+ * Con async el buffer se llena enseguida si se traza mas rapido de lo que escribe el hilo "trace-sink", y a partir
+ * de ahi trace() solo cuenta un descarte. El contador auxiliar "dropped" (en las mismas unidades que el score) dice
+ * cuanto del throughput son trazas descartadas: solo score - dropped se ha escrito de verdad.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraceSinkBenchmark {
+
+    @Param({"console", "async"})
+    String sink;
+
+    private TraceSink trace;
+    private final AtomicLong reportedDrops = new AtomicLong();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Drops {
+
+        public long dropped;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            dropped = 0;
+        }
+
+        //el primer hilo en acabar la iteracion se lleva todos los descartes nuevos; la suma es el total
+        @TearDown(Level.Iteration)
+        public void count(TraceSinkBenchmark benchmark) {
+            dropped = benchmark.takeDrops();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var out = new PrintStream(OutputStream.nullOutputStream());
+        trace = "console".equals(sink) ? TraceSink.console(out) : TraceSink.async(out, 1 << 16);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (trace instanceof AsyncTraceSink) {
+            var async = (AsyncTraceSink) trace;
+            System.out.println("dropped traces: " + async.dropped());
+            async.close();
+        }
+    }
+
+    long takeDrops() {
+        if (!(trace instanceof AsyncTraceSink)) {
+            return 0;
+        }
+        var total = ((AsyncTraceSink) trace).dropped();
+        return total - reportedDrops.getAndSet(total);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void trace(Drops drops) {
+        trace.trace("monoInteger %d", 42);
+    }
+
+    //una operacion por traza, para comparar el score con dropped
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public Integer parallelRails(Drops drops) {
+        return Flux.range(1, 1000)
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .map(number -> {
+                    trace.trace("monoInteger %d", number);
+                    return number;
+                })
+                .sequential()
+                .blockLast();
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.playground.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Mono.zip como en callMonosWithZip, comparado con encadenar las mismas llamadas con flatMap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZipBenchmark {
+
+    @Benchmark
+    public Integer zipThenFlatMap() {
+        return Mono.zip(lookup(1), lookup(2))
+                .flatMap(tuple -> lookup(100))
+                .block();
+    }
+
+    @Benchmark
+    public Integer zipThree() {
+        return Mono.zip(lookup(1), lookup(2), lookup(3))
+                .map(tuple -> tuple.getT1() + tuple.getT2() + tuple.getT3())
+                .block();
+    }
+
+    @Benchmark
+    public Integer sequentialFlatMap() {
+        return lookup(1)
+                .flatMap(one -> lookup(2))
+                .flatMap(two -> lookup(100))
+                .block();
+    }
+
+    private static Mono<Integer> lookup(int key) {
+        return Mono.fromSupplier(() -> key);
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.playground.blocking;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/*
+ * Una llamada bloqueante detectada por BlockingGuard: que se llamo, en que hilo, desde que operador de Reactor
+ * (stage) y desde que codigo nuestro (caller), con la pila completa.
+ */
+public final class BlockingCall {
+
+    private static final List<String> FRAMEWORK_PACKAGES = List.of("java.", "jdk.", "sun.", "reactor.",
+            "io.netty.", "org.junit.", "org.springframework.");
+
+    private final String method;
+    private final String thread;
+    private final String stage;
+    private final String caller;
+    private final List<StackTraceElement> stack;
+
+    private BlockingCall(String method, String thread, String stage, String caller, List<StackTraceElement> stack) {
+        this.method = method;
+        this.thread = thread;
+        this.stage = stage;
+        this.caller = caller;
+        this.stack = stack;
+    }
+
+    static BlockingCall of(String method, Thread thread, StackTraceElement[] stackTrace) {
+        //las primeras entradas son de BlockHound y de este guard
+        var stack = Arrays.stream(stackTrace)
+                .dropWhile(frame -> !frame.getClassName().startsWith("java.")
+                        && !frame.getClassName().startsWith("jdk.")
+                        && !frame.getClassName().startsWith("sun."))
+                .collect(Collectors.toList());
+        var stage = stack.stream()
+                .filter(frame -> frame.getClassName().startsWith("reactor.core.publisher."))
+                .findFirst()
+                .map(BlockingCall::operator)
+                .orElse("?");
+        var caller = stack.stream()
+                .filter(frame -> FRAMEWORK_PACKAGES.stream().noneMatch(frame.getClassName()::startsWith))
+                .findFirst()
+                .map(StackTraceElement::toString)
+                .orElse("?");
+        return new BlockingCall(method, thread.getName(), stage, caller, stack);
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public String thread() {
+        return thread;
+    }
+
+    /*
+     * El operador de Reactor mas cercano a la llamada, p.ej. "MonoCallable" para un Mono.fromCallable o
+     * "FluxMapFuseable" para un map.
+     */
+    public String stage() {
+        return stage;
+    }
+
+    /*
+     * La primera linea de la pila que no es del JDK ni de un framework.
+     */
+    public Optional<String> caller() {
+        return "?".equals(caller) ? Optional.empty() : Optional.of(caller);
+    }
+
+    public List<StackTraceElement> stack() {
+        return stack;
+    }
+
+    //reactor.core.publisher.FluxMapFuseable$MapFuseableSubscriber -> FluxMapFuseable
+    private static String operator(StackTraceElement frame) {
+        var name = frame.getClassName().substring("reactor.core.publisher.".length());
+        var inner = name.indexOf('$');
+        return inner < 0 ? name : name.substring(0, inner);
+    }
+
+    @Override
+    public String toString() {
+        var report = new StringBuilder()
+                .append("blocking call ").append(method)
+                .append(" on thread ").append(thread)
+                .append(" in stage ").append(stage)
+                .append(" from ").append(caller);
+        stack.forEach(frame -> report.append(System.lineSeparator()).append("\tat ").append(frame));
+        return report.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.playground.blocking;
+
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * BlockHound para los tests: detecta Thread.sleep, locks, IO... en hilos que no deberian bloquear nunca
+ * (workers de Schedulers.parallel() y Schedulers.single(), event loops de Netty).
+ *
+ * BlockHound se instala una vez por JVM y no se puede desinstalar, asi que solo actua entre start() y stop():
+ * fuera de eso los tests que bloquean a proposito (SimulatedBackendTest, SchedulerComparison) siguen como siempre.
+ * Mientras esta activo cada llamada bloqueante se anota y falla en el propio hilo con BlockingOperationError,
+ * como con BlockHound a secas.
+ *
+ * Con tiempo virtual (VirtualTimeScheduler.getOrSet(), como en WebfluxTest) el VirtualTimeScheduler sustituye a
+ * Schedulers.parallel() y sus tareas corren en el hilo del test mientras avanza el reloj: esas tareas tambien
+ * cuentan como no bloqueantes.
+ */
+public final class BlockingGuard {
+
+    private static final AtomicBoolean INSTALLED = new AtomicBoolean();
+    private static final List<BlockingCall> CALLS = new CopyOnWriteArrayList<>();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static volatile boolean active;
+
+    private BlockingGuard() {
+    }
+
+    public static void start() {
+        install();
+        CALLS.clear();
+        active = true;
+    }
+
+    /*
+     * Las llamadas bloqueantes detectadas desde start().
+     */
+    public static List<BlockingCall> stop() {
+        active = false;
+        var calls = List.copyOf(CALLS);
+        CALLS.clear();
+        return calls;
+    }
+
+    public static boolean isActive() {
+        return active;
+    }
+
+    private static void install() {
+        if (!INSTALLED.compareAndSet(false, true)) {
+            return;
+        }
+        /*
+         * Lo que usan el predicado y el callback se carga antes de instalar: cargar una clase desde dentro de la
+         * comprobacion de BlockHound acaba en ClassCircularityError.
+         */
+        inVirtualTimeTask();
+        BlockingCall.of("warm-up", Thread.currentThread(), new Throwable().getStackTrace()).toString();
+        new BlockingOperationError(null).getMessage();
+        BlockHound.install(builder -> builder
+                //un hilo "dinamico" vuelve a pasar por nonBlockingThreadPredicate en cada comprobacion, no solo la
+                //primera vez: el hilo del test solo es no bloqueante mientras ejecuta tareas del VirtualTimeScheduler
+                .addDynamicThreadPredicate(thread -> true)
+                .nonBlockingThreadPredicate(nonBlocking -> nonBlocking.or(thread -> active && inVirtualTimeTask()))
+                .blockingMethodCallback(method -> {
+                    if (!active) {
+                        return;
+                    }
+                    CALLS.add(BlockingCall.of(method.toString(), Thread.currentThread(),
+                            new Throwable().getStackTrace()));
+                    throw new BlockingOperationError(method);
+                }));
+    }
+
+    private static boolean inVirtualTimeTask() {
+        return STACK_WALKER.walk(frames -> frames.anyMatch(frame ->
+                frame.getClassName().equals("reactor.test.scheduler.VirtualTimeScheduler")
+                        && frame.getMethodName().equals("drain")));
+    }
+}
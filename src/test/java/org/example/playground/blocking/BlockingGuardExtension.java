@@ -0,0 +1,31 @@
+package org.example.playground.blocking;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.stream.Collectors;
+
+/*
+ * @ExtendWith(BlockingGuardExtension.class): cada test corre con BlockingGuard activo y falla si ha habido
+ * alguna llamada bloqueante en un hilo no bloqueante, aunque el flujo se haya tragado el error (onErrorResume,
+ * onErrorContinue...). El mensaje trae el hilo, el operador y la pila de cada llamada.
+ */
+public class BlockingGuardExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        BlockingGuard.start();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        var calls = BlockingGuard.stop();
+        if (!calls.isEmpty()) {
+            throw new AssertionFailedError(calls.size() + " blocking call(s) on non-blocking threads:"
+                    + System.lineSeparator()
+                    + calls.stream().map(BlockingCall::toString).collect(Collectors.joining(System.lineSeparator())));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.example.playground.blocking;
+
+import org.example.playground.backend.LatencyMode;
+import org.example.playground.backend.SimulatedBackend;
+import org.example.playground.trace.TraceSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opentest4j.AssertionFailedError;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.resources.LoopResources;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockingGuardTest {
+
+    private static final Duration LATENCY = Duration.ofMillis(10);
+
+    private final SimulatedBackend blocking = backend(LatencyMode.BLOCKING);
+
+    @AfterEach
+    void tearDown() {
+        BlockingGuard.stop();
+        VirtualTimeScheduler.reset();
+    }
+
+    @Test
+    void sleepOnParallelIsReportedWithStageAndCaller() {
+        BlockingGuard.start();
+        var error = assertThrows(RuntimeException.class,
+                () -> blocking.get(1).subscribeOn(Schedulers.parallel()).block());
+        var calls = BlockingGuard.stop();
+
+        assertInstanceOf(BlockingOperationError.class, rootCause(error));
+        assertEquals(1, calls.size());
+        var call = calls.get(0);
+        assertTrue(call.method().contains("sleep"), call.method());
+        assertTrue(call.thread().startsWith("parallel-"), call.thread());
+        //el map de un Mono.just es un FluxMapFuseable por dentro
+        assertEquals("FluxMapFuseable", call.stage());
+        assertTrue(call.caller().orElseThrow().contains("DefaultSimulatedBackend.sleep"), call.toString());
+        assertTrue(call.stack().get(0).getClassName().startsWith("java.lang.Thread"), call.toString());
+    }
+
+    @Test
+    void swallowedErrorsAreStillReported() {
+        BlockingGuard.start();
+        var result = blocking.get(1)
+                .subscribeOn(Schedulers.parallel())
+                .onErrorResume(error -> Mono.just(-1))
+                .block();
+        var calls = BlockingGuard.stop();
+
+        assertEquals(-1, result);
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    void blockingOnANettyEventLoopIsReported() {
+        var loops = LoopResources.create("guard-test", 1, true);
+        try {
+            var eventLoop = Schedulers.fromExecutor(loops.onClient(true).next());
+            BlockingGuard.start();
+            assertThrows(RuntimeException.class, () -> blocking.get(1).subscribeOn(eventLoop).block());
+            var calls = BlockingGuard.stop();
+
+            assertEquals(1, calls.size());
+            assertTrue(calls.get(0).thread().startsWith("guard-test"), calls.get(0).thread());
+        } finally {
+            loops.disposeLater().block();
+        }
+    }
+
+    @Test
+    void blockingInsideAVirtualTimeTaskIsReported() {
+        var scheduler = VirtualTimeScheduler.getOrSet();
+        BlockingGuard.start();
+        var result = Mono.delay(Duration.ofSeconds(1))
+                .flatMap(tick -> blocking.get(1))
+                .toFuture();
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        var calls = BlockingGuard.stop();
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(1, calls.size());
+        assertEquals(Thread.currentThread().getName(), calls.get(0).thread());
+    }
+
+    @Test
+    void blockingOutsideTheGuardIsAllowed() {
+        BlockingGuard.start();
+        BlockingGuard.stop();
+        assertEquals(1, blocking.get(1).subscribeOn(Schedulers.parallel()).block());
+        assertFalse(BlockingGuard.isActive());
+    }
+
+    @Test
+    void extensionFailsTheTestWithTheReport() {
+        var extension = new BlockingGuardExtension();
+        extension.beforeEach(null);
+        blocking.get(1).subscribeOn(Schedulers.parallel()).onErrorResume(error -> Mono.empty()).block();
+
+        var failure = assertThrows(AssertionFailedError.class, () -> extension.afterEach(null));
+        assertTrue(failure.getMessage().startsWith("1 blocking call(s)"), failure.getMessage());
+        assertTrue(failure.getMessage().contains("in stage FluxMapFuseable"), failure.getMessage());
+        assertTrue(failure.getMessage().contains("DefaultSimulatedBackend.sleep"), failure.getMessage());
+    }
+
+    /*
+     * Las variantes que sacan el Thread.sleep de los hilos no bloqueantes pasan con el guard activo.
+     */
+    @Nested
+    @ExtendWith(BlockingGuardExtension.class)
+    class Offloaded {
+
+        @Test
+        void subscribeOnBoundedElastic() {
+            assertEquals(1, blocking.get(1).subscribeOn(Schedulers.boundedElastic()).block());
+        }
+
+        @Test
+        void boundedElasticBackendCalledFromParallel() {
+            var backend = backend(LatencyMode.BOUNDED_ELASTIC);
+            var result = Mono.defer(() -> backend.get(1))
+                    .subscribeOn(Schedulers.parallel())
+                    .publishOn(Schedulers.parallel())
+                    .map(value -> value * 11)
+                    .block();
+            assertEquals(11, result);
+        }
+
+        @Test
+        void virtualThreadBackendCalledFromParallel() {
+            var backend = backend(LatencyMode.VIRTUAL_THREAD);
+            var result = Mono.zip(backend.get(1), backend.get(2))
+                    .subscribeOn(Schedulers.parallel())
+                    .map(tuple -> tuple.getT1() + tuple.getT2())
+                    .block();
+            assertEquals(3, result);
+        }
+
+        @Test
+        void timerBackend() {
+            var backend = backend(LatencyMode.TIMER);
+            var result = backend.getAll(List.of(1, 2, 3)).subscribeOn(Schedulers.parallel()).block();
+            assertEquals(3, result.size());
+        }
+    }
+
+    private static SimulatedBackend backend(LatencyMode mode) {
+        return SimulatedBackend.of(mode, LATENCY, TraceSink.noop());
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        while (error.getCause() != null && error.getCause() != error) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.playground.cache;
+
+import org.example.playground.backend.SimulatedBackend;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReactiveCacheTest {
+
+    private final SimulatedBackend backend = SimulatedBackend.timer(Duration.ofMillis(100));
+
+    @Test
+    void concurrentSubscribersShareTheInFlightLookup() {
+        /*
+         * Como webfluxTestSubscribe: dos suscripciones a monoIntegerOne() a la vez.
+         * Sin cache son dos llamadas de 4s para la misma clave, con cache es una.
+         */
+        var cache = ReactiveCache.create(backend::get, 100, Duration.ofMinutes(1));
+        var publisher = Mono.zip(cache.get(1), cache.get(1));
+
+        StepVerifier.create(publisher)
+                .expectNextMatches(tuple -> tuple.getT1() == 1 && tuple.getT2() == 1)
+                .verifyComplete();
+        assertEquals(1, backend.roundTrips());
+        assertEquals(1, cache.stats().misses());
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void hotKeysAreServedFromCache() {
+        var cache = ReactiveCache.create(backend::get, 100, Duration.ofMinutes(1));
+        var publisher = Flux.range(1, 100)
+                .flatMap(i -> cache.get(i % 5))
+                .count();
+
+        StepVerifier.create(publisher).expectNext(100L).verifyComplete();
+        assertEquals(5, backend.roundTrips());
+        assertEquals(0.95, cache.stats().hitRatio(), 0.0001);
+    }
+
+    @Test
+    void entriesExpireAfterTtl() {
+        var clock = VirtualTimeScheduler.create();
+        var loads = new AtomicInteger();
+        var cache = ReactiveCache.<Integer, Integer>create(key -> Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return key;
+        }), 100, Duration.ofSeconds(10), clock);
+
+        StepVerifier.create(cache.get(1)).expectNext(1).verifyComplete();
+        clock.advanceTimeBy(Duration.ofSeconds(9));
+        StepVerifier.create(cache.get(1)).expectNext(1).verifyComplete();
+        assertEquals(1, loads.get());
+
+        clock.advanceTimeBy(Duration.ofSeconds(2));
+        StepVerifier.create(cache.get(1)).expectNext(1).verifyComplete();
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void sizeIsBoundedEvictingLeastRecentlyUsed() {
+        var loads = new AtomicInteger();
+        var cache = ReactiveCache.<Integer, Integer>create(key -> Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return key;
+        }), 2, Duration.ofMinutes(1));
+
+        cache.get(1).block();
+        cache.get(2).block();
+        cache.get(1).block();
+        cache.get(3).block();
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().evictions());
+        cache.get(1).block();
+        assertEquals(3, loads.get());
+        cache.get(2).block();
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void errorsAreNotCached() {
+        /*
+         * monoIntegerException no se queda en cache: cada peticion nueva vuelve a intentarlo.
+         */
+        var attempts = new AtomicInteger();
+        var cache = ReactiveCache.<Integer, Integer>create(key -> Mono.defer(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                return Mono.error(new RuntimeException("exception"));
+            }
+            return Mono.just(key);
+        }), 100, Duration.ofMinutes(1));
+
+        StepVerifier.create(cache.get(1)).verifyErrorMessage("exception");
+        assertEquals(0, cache.size());
+        StepVerifier.create(cache.get(1)).expectNext(1).verifyComplete();
+        StepVerifier.create(cache.get(1)).expectNext(1).verifyComplete();
+        assertEquals(2, attempts.get());
+        assertTrue(cache.stats().hits() >= 1);
+    }
+
+    @Test
+    void emptyResultsAreNotCached() {
+        var attempts = new AtomicInteger();
+        var cache = ReactiveCache.<Integer, Integer>create(key -> Mono.fromRunnable(attempts::incrementAndGet),
+                100, Duration.ofMinutes(1));
+
+        StepVerifier.create(cache.get(1)).verifyComplete();
+        StepVerifier.create(cache.get(1)).verifyComplete();
+        assertEquals(2, attempts.get());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,201 @@
+package org.example.playground.deadline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.test.scheduler.VirtualTimeScheduler;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineTest {
+
+    private static final RuntimeException EXCEPTION = new RuntimeException("exception");
+
+    private VirtualTimeScheduler scheduler;
+    //instante (ms) en el que empieza cada llamada al "backend"
+    private final List<Long> starts = new CopyOnWriteArrayList<>();
+    private final AtomicInteger completed = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        scheduler = VirtualTimeScheduler.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    void nestedCallsSeeTheRemainingBudget() {
+        var remaining = call(1, 100)
+                .flatMap(number -> Mono.deferContextual(context -> Mono.just(Deadline.current(context)
+                        .orElseThrow()
+                        .remaining())))
+                .transform(Deadline.within(Duration.ofMillis(500), scheduler));
+        assertEquals(Duration.ofMillis(400), run(remaining).join());
+
+        //un within interno no alarga el presupuesto del externo, pero si puede acortarlo
+        var longer = call(1, 100)
+                .then(remainingInside(Duration.ofSeconds(1)))
+                .transform(Deadline.within(Duration.ofMillis(500), scheduler));
+        assertEquals(Duration.ofMillis(400), run(longer).join());
+        var shorter = call(1, 100)
+                .then(remainingInside(Duration.ofMillis(50)))
+                .transform(Deadline.within(Duration.ofMillis(500), scheduler));
+        assertEquals(Duration.ofMillis(50), run(shorter).join());
+    }
+
+    @Test
+    void nestedChainIsCancelledAtTheDeadline() {
+        //como callMonoWithFatherSubscription: tres llamadas de 100ms encadenadas con 250ms de presupuesto
+        var chain = call(1, 100)
+                .flatMap(number -> call(number * 11, 100).transform(Deadline.guard()))
+                .flatMap(number -> call(number * 111, 100).transform(Deadline.guard()))
+                .transform(Deadline.within(Duration.ofMillis(250), scheduler));
+        var result = run(chain);
+
+        assertDeadlineExceeded(result);
+        //la tercera se cancela a medias
+        assertEquals(List.of(0L, 100L, 200L), starts);
+        assertEquals(2, completed.get());
+        assertEquals(0, startedAfter(250));
+    }
+
+    @Test
+    void retriesKeepRunningAfterTheCallerGaveUpWithoutADeadline() {
+        //el llamante deja de esperar a los 250ms pero nadie se lo dice a la cadena
+        var result = run(failing(100).retryWhen(backoff()));
+
+        assertTrue(Exceptions.isRetryExhausted(cause(result)));
+        assertEquals(4, starts.size());
+        assertEquals(3, startedAfter(250));
+    }
+
+    @Test
+    void retriesAreSkippedWhenTheyWouldStartAfterTheDeadline() {
+        var end = new AtomicInteger();
+        var result = run(failing(100)
+                .transform(Deadline.retry(backoff()))
+                .transform(Deadline.within(Duration.ofMillis(250), scheduler))
+                .doOnError(error -> end.set((int) scheduler.now(TimeUnit.MILLISECONDS))));
+
+        //quedan 150ms y el siguiente intento empezaria a los 200ms: falla ya con el error original
+        assertSame(EXCEPTION, cause(result));
+        assertEquals(100, end.get());
+        assertEquals(List.of(0L), starts);
+        assertEquals(0, startedAfter(250));
+    }
+
+    @Test
+    void retriesWithinTheBudgetStillHappen() {
+        var result = run(failing(100)
+                .transform(Deadline.retry(backoff()))
+                .transform(Deadline.within(Duration.ofMillis(1000), scheduler)));
+
+        //intentos a los 0, 300 y 800ms; el de 1600ms ya no cabe
+        assertSame(EXCEPTION, cause(result));
+        assertEquals(List.of(0L, 300L, 800L), starts);
+    }
+
+    @Test
+    void retriesAreSkippedWhenTheGrownBackoffOvershootsTheDeadline() {
+        var result = run(failing(100)
+                .transform(Deadline.retry(backoff()))
+                .transform(Deadline.within(Duration.ofMillis(700), scheduler)));
+
+        //a los 400ms quedan 300ms, mas que minBackoff pero menos que los 400ms del segundo reintento
+        assertSame(EXCEPTION, cause(result));
+        assertEquals(List.of(0L, 300L), starts);
+    }
+
+    @Test
+    void retriesAreSkippedWhenTheJitterCouldOvershootTheDeadline() {
+        var result = run(failing(100)
+                .transform(Deadline.retry(Retry.backoff(3, Duration.ofMillis(200)).jitter(0.5).scheduler(scheduler)))
+                .transform(Deadline.within(Duration.ofMillis(350), scheduler)));
+
+        //quedan 250ms y el primer reintento puede esperar hasta 300ms
+        assertSame(EXCEPTION, cause(result));
+        assertEquals(List.of(0L), starts);
+    }
+
+    @Test
+    void expiredInnerBudgetIsNotRetried() {
+        var result = run(call(1, 100)
+                .transform(Deadline.within(Duration.ofMillis(50), scheduler))
+                .transform(Deadline.retry(Retry.backoff(3, Duration.ofMillis(10)).jitter(0).scheduler(scheduler)))
+                .transform(Deadline.within(Duration.ofSeconds(1), scheduler)));
+
+        assertDeadlineExceeded(result);
+        assertEquals(List.of(0L), starts);
+        assertEquals(0, completed.get());
+    }
+
+    @Test
+    void withoutDeadlineCallsPassThrough() {
+        var result = run(call(1, 100).transform(Deadline.guard())
+                .flatMap(number -> failing(10))
+                .transform(Deadline.retry(Retry.backoff(1, Duration.ofMillis(10)).jitter(0).scheduler(scheduler))));
+        assertThrows(CompletionException.class, result::join);
+        //el reintento vuelve a suscribir toda la cadena
+        assertEquals(List.of(0L, 100L, 120L, 220L), starts);
+    }
+
+    private Mono<Duration> remainingInside(Duration budget) {
+        return Mono.deferContextual(context -> Mono.just(Deadline.current(context).orElseThrow().remaining()))
+                .transform(Deadline.within(budget, scheduler));
+    }
+
+    private RetryBackoffSpec backoff() {
+        //200, 400, 800ms sin jitter
+        return Retry.backoff(3, Duration.ofMillis(200)).jitter(0).scheduler(scheduler);
+    }
+
+    private Mono<Integer> call(int value, long millis) {
+        return Mono.defer(() -> {
+            starts.add(scheduler.now(TimeUnit.MILLISECONDS));
+            return Mono.delay(Duration.ofMillis(millis), scheduler).thenReturn(value)
+                    .doOnSuccess(done -> completed.incrementAndGet());
+        });
+    }
+
+    private Mono<Integer> failing(long millis) {
+        return call(0, millis).then(Mono.error(EXCEPTION));
+    }
+
+    private long startedAfter(long millis) {
+        return starts.stream().filter(start -> start >= millis).count();
+    }
+
+    private <T> CompletableFuture<T> run(Mono<T> mono) {
+        var future = mono.toFuture();
+        scheduler.advanceTimeBy(Duration.ofSeconds(10));
+        assertTrue(future.isDone());
+        return future;
+    }
+
+    private static Throwable cause(CompletableFuture<?> future) {
+        return assertThrows(CompletionException.class, future::join).getCause();
+    }
+
+    private static void assertDeadlineExceeded(CompletableFuture<?> future) {
+        assertInstanceOf(DeadlineExceededException.class, cause(future));
+    }
+}
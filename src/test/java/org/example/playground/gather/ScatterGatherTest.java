@@ -0,0 +1,175 @@
+package org.example.playground.gather;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScatterGatherTest {
+
+    private static final RuntimeException EXCEPTION = new RuntimeException("exception");
+
+    private VirtualTimeScheduler scheduler;
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private final AtomicInteger cancellations = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        scheduler = VirtualTimeScheduler.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    void keepsValuesWhenOtherSourcesFailOrAreEmpty() {
+        var gather = ScatterGather.of(Duration.ofSeconds(1), scheduler);
+        var result = run(gather.gather(
+                value(1, 100),
+                empty(50),
+                error(20),
+                value(4, 300)));
+
+        assertEquals(Duration.ofMillis(300), result.elapsed);
+        var partial = result.value;
+        assertEquals(List.of(1, 4), partial.values());
+        assertFalse(partial.isComplete());
+        assertEquals(Slot.Status.VALUE, partial.slot(0).status());
+        assertEquals(Duration.ofMillis(100), partial.slot(0).elapsed());
+        assertEquals(Slot.Status.EMPTY, partial.slot(1).status());
+        assertEquals(Duration.ofMillis(50), partial.slot(1).elapsed());
+        assertEquals(Slot.Status.ERROR, partial.slot(2).status());
+        assertSame(EXCEPTION, partial.slot(2).error());
+        assertEquals(-1, partial.slot(2).orElse(-1));
+        assertThrows(NoSuchElementException.class, () -> partial.slot(2).value());
+        assertEquals(4, subscriptions.get());
+        assertEquals(0, cancellations.get());
+    }
+
+    @Test
+    void monoZipLosesWhatScatterGatherKeeps() {
+        var zip = Mono.zip(value(1, 100), error(20)).toFuture();
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        assertTrue(zip.isCompletedExceptionally());
+        //el error de la segunda cancela la primera, que ya estaba en marcha
+        assertEquals(1, cancellations.get());
+    }
+
+    @Test
+    void pendingSourcesTimeOutAtTheDeadline() {
+        var gather = ScatterGather.of(Duration.ofMillis(200), scheduler);
+        var result = run(gather.gather(value(1, 100), value(2, 300), value(3, 5000)));
+
+        assertEquals(Duration.ofMillis(200), result.elapsed);
+        var partial = result.value;
+        assertEquals(List.of(1), partial.values());
+        assertEquals(2, partial.count(Slot.Status.TIMED_OUT));
+        assertEquals(Duration.ofMillis(200), partial.slot(2).elapsed());
+        assertNull(partial.slot(2).error());
+        //solo se cancelan las pendientes, cada fuente se suscribio una vez
+        assertEquals(3, subscriptions.get());
+        assertEquals(2, cancellations.get());
+    }
+
+    @Test
+    void latencyIsTheSlowestSourceUpToTheDeadline() {
+        var gather = ScatterGather.of(Duration.ofMillis(500), scheduler);
+        for (var slowest : List.of(100, 250, 499, 500, 800)) {
+            var result = run(gather.gather(value(1, 10), value(2, slowest), empty(slowest / 2)));
+            assertEquals(Duration.ofMillis(Math.min(slowest, 500)), result.elapsed, "slowest " + slowest);
+        }
+    }
+
+    @Test
+    void completeResultMatchesMonoZip() {
+        var gather = ScatterGather.of(Duration.ofSeconds(1), scheduler);
+        var result = run(gather.zip(value(1, 100), Mono.just("two"), value(3, 50)));
+
+        assertEquals(Duration.ofMillis(100), result.elapsed);
+        var slots = result.value;
+        assertEquals(1, slots.getT1().value());
+        assertEquals("two", slots.getT2().value());
+        assertEquals(Duration.ZERO, slots.getT2().elapsed());
+        assertEquals(3, slots.getT3().value());
+    }
+
+    @Test
+    void resubscribingRestartsTheDeadline() {
+        var gather = ScatterGather.of(Duration.ofMillis(200), scheduler);
+        var mono = gather.zip(value(1, 150), value(2, 150));
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        var first = run(mono);
+        var second = run(mono);
+        assertTrue(first.value.getT1().hasValue() && first.value.getT2().hasValue());
+        assertTrue(second.value.getT1().hasValue() && second.value.getT2().hasValue());
+        assertEquals(4, subscriptions.get());
+    }
+
+    @Test
+    void noSources() {
+        var gather = ScatterGather.of(Duration.ofMillis(200), scheduler);
+        var result = run(gather.<Integer>gather(List.of()));
+        assertEquals(0, result.value.size());
+        assertTrue(result.value.isComplete());
+    }
+
+    @Test
+    void rejectsInvalidDeadline() {
+        assertThrows(IllegalArgumentException.class, () -> ScatterGather.of(Duration.ZERO, scheduler));
+    }
+
+    private <T> Mono<T> tracked(Mono<T> source) {
+        return source.doOnSubscribe(subscription -> subscriptions.incrementAndGet())
+                .doOnCancel(cancellations::incrementAndGet);
+    }
+
+    private Mono<Integer> value(int value, long millis) {
+        return tracked(Mono.delay(Duration.ofMillis(millis), scheduler).thenReturn(value));
+    }
+
+    private Mono<Integer> empty(long millis) {
+        return tracked(Mono.delay(Duration.ofMillis(millis), scheduler).then(Mono.empty()));
+    }
+
+    private Mono<Integer> error(long millis) {
+        return tracked(Mono.delay(Duration.ofMillis(millis), scheduler).then(Mono.error(EXCEPTION)));
+    }
+
+    private <T> Timed<T> run(Mono<T> mono) {
+        var start = scheduler.now(TimeUnit.MILLISECONDS);
+        var end = new AtomicInteger(-1);
+        CompletableFuture<T> future = mono
+                .doOnSuccess(value -> end.set((int) (scheduler.now(TimeUnit.MILLISECONDS) - start)))
+                .toFuture();
+        scheduler.advanceTimeBy(Duration.ofSeconds(10));
+        assertTrue(future.isDone());
+        return new Timed<>(future.join(), Duration.ofMillis(end.get()));
+    }
+
+    private static final class Timed<T> {
+        final T value;
+        final Duration elapsed;
+
+        Timed(T value, Duration elapsed) {
+            this.value = value;
+            this.elapsed = elapsed;
+        }
+    }
+}
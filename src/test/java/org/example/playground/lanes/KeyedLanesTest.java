@@ -0,0 +1,216 @@
+package org.example.playground.lanes;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyedLanesTest {
+
+    private static final Duration IDLE = Duration.ofSeconds(1);
+
+    private VirtualTimeScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = VirtualTimeScheduler.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+    }
+
+    record Item(int key, int seq) {
+    }
+
+    @Test
+    void keepsOrderWithinEachKeyUnderSkew() {
+        var random = new Random(42);
+        var items = skewed(random, 2000, 100);
+        var latencies = IntStream.range(0, items.size()).map(i -> 1 + random.nextInt(50)).toArray();
+        var lanes = KeyedLanes.of(8, 64, IDLE, scheduler);
+
+        var result = run(Flux.range(0, items.size())
+                .transform(lanes.flatMap(index -> items.get(index).key(),
+                        index -> delay(latencies[index]).thenReturn(items.get(index)))));
+
+        assertEquals(items.size(), result.value.size());
+        var byKey = result.value.stream().collect(Collectors.groupingBy(Item::key));
+        byKey.forEach((key, processed) -> assertEquals(
+                processed.stream().map(Item::seq).sorted().collect(Collectors.toList()),
+                processed.stream().map(Item::seq).collect(Collectors.toList()),
+                "key " + key));
+        //sin orden por clave, como el flatMap de webfluxSubscribeBehaviour, las latencias aleatorias lo desordenan
+        var unordered = run(Flux.range(0, items.size())
+                .flatMap(index -> delay(latencies[index]).thenReturn(items.get(index))));
+        assertTrue(outOfOrderKeys(unordered.value) > 0);
+        assertEquals(0, lanes.active());
+    }
+
+    @Test
+    void runsDifferentKeysInParallel() {
+        var lanes = KeyedLanes.of(4, 64, IDLE, scheduler);
+        //4 claves x 10 elementos de 100ms
+        var items = IntStream.range(0, 40).mapToObj(i -> new Item(i % 4, i / 4)).collect(Collectors.toList());
+
+        var laned = run(Flux.fromIterable(items).transform(lanes.flatMap(Item::key, this::call)));
+        var serial = run(Flux.fromIterable(items).concatMap(this::call));
+
+        assertEquals(Duration.ofMillis(1000), laned.elapsed);
+        assertEquals(Duration.ofMillis(4000), serial.elapsed);
+        assertEquals(4, lanes.created());
+    }
+
+    @Test
+    void hotKeyBoundsTheTotalTime() {
+        var lanes = KeyedLanes.of(16, 256, IDLE, scheduler);
+        //un 20% del trafico es la clave 0, el resto se reparte entre 200 claves
+        var random = new Random(7);
+        List<Item> items = new ArrayList<>();
+        var seq = new AtomicInteger();
+        for (int i = 0; i < 400; i++) {
+            items.add(new Item(random.nextInt(5) == 0 ? 0 : 1 + random.nextInt(200), seq.getAndIncrement()));
+        }
+        var hot = items.stream().filter(item -> item.key() == 0).count();
+
+        var laned = run(Flux.fromIterable(items).transform(lanes.flatMap(Item::key, this::call)));
+        var serial = run(Flux.fromIterable(items).concatMap(this::call));
+
+        //el carril de la clave caliente marca el ritmo: sus elementos y los pocos frios que comparten carril
+        assertTrue(laned.elapsed.compareTo(Duration.ofMillis(100 * hot)) >= 0, laned.elapsed.toString());
+        assertTrue(laned.elapsed.compareTo(Duration.ofMillis(100 * (hot + 40))) <= 0, laned.elapsed.toString());
+        assertTrue(laned.elapsed.multipliedBy(3).compareTo(serial.elapsed) < 0,
+                laned.elapsed + " vs " + serial.elapsed);
+        assertEquals(16, lanes.created());
+    }
+
+    @Test
+    void reclaimsIdleLanes() {
+        var lanes = KeyedLanes.of(16, 64, IDLE, scheduler);
+        var source = Sinks.many().unicast().<Item>onBackpressureBuffer();
+        var result = new ArrayList<Item>();
+        var subscription = source.asFlux().transform(lanes.flatMap(Item::key, this::call)).subscribe(result::add);
+
+        IntStream.range(0, 8).forEach(key -> source.tryEmitNext(new Item(key, 0)));
+        scheduler.advanceTimeBy(Duration.ofMillis(100));
+        assertEquals(8, result.size());
+        assertEquals(8, lanes.active());
+
+        scheduler.advanceTimeBy(IDLE.multipliedBy(2));
+        assertEquals(0, lanes.active());
+        assertEquals(8, lanes.reclaimed());
+
+        //la misma clave vuelve: carril nuevo
+        source.tryEmitNext(new Item(3, 1));
+        scheduler.advanceTimeBy(Duration.ofMillis(100));
+        assertEquals(new Item(3, 1), result.get(8));
+        assertEquals(9, lanes.created());
+        assertEquals(1, lanes.active());
+        subscription.dispose();
+        assertEquals(0, lanes.active());
+    }
+
+    @Test
+    void boundsPendingElements() {
+        var lanes = KeyedLanes.of(4, 16, IDLE, scheduler);
+        var pulled = new AtomicInteger();
+        var result = Flux.range(0, 1000)
+                .doOnNext(element -> pulled.incrementAndGet())
+                .transform(lanes.flatMap(element -> element % 4, element -> delay(100).thenReturn(element)))
+                .count()
+                .toFuture();
+
+        //maxPending en los carriles mas lo que precarga el merge interno
+        assertTrue(pulled.get() <= 16 + 32, "pulled " + pulled.get());
+        scheduler.advanceTimeBy(Duration.ofMinutes(1));
+        assertEquals(1000, result.join());
+    }
+
+    @Test
+    void errorsCancelTheSource() {
+        var lanes = KeyedLanes.of(4, 16, IDLE, scheduler);
+        var cancelled = new AtomicInteger();
+        var result = Flux.range(0, 100)
+                .doOnCancel(cancelled::incrementAndGet)
+                .transform(lanes.flatMap(Function.identity(), element -> element == 5
+                        ? Mono.<Integer>error(new IllegalStateException("boom"))
+                        : delay(10).thenReturn(element)))
+                .collectList()
+                .toFuture();
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+
+        var error = assertThrows(CompletionException.class, result::join);
+        assertEquals("boom", error.getCause().getMessage());
+        assertEquals(1, cancelled.get());
+        assertEquals(0, lanes.active());
+    }
+
+    private Mono<Item> call(Item item) {
+        return delay(100).thenReturn(item);
+    }
+
+    private Mono<Long> delay(long millis) {
+        return Mono.delay(Duration.ofMillis(millis), scheduler);
+    }
+
+    //claves muy desiguales: la 0 se lleva una buena parte y las altas casi nada
+    private static List<Item> skewed(Random random, int size, int keys) {
+        var seqs = new int[keys];
+        return IntStream.range(0, size)
+                .mapToObj(i -> {
+                    var key = (int) (Math.pow(random.nextDouble(), 3) * keys);
+                    return new Item(key, seqs[key]++);
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static long outOfOrderKeys(List<Item> items) {
+        Map<Integer, List<Integer>> byKey = items.stream().collect(Collectors.groupingBy(Item::key,
+                Collectors.mapping(Item::seq, Collectors.toList())));
+        return byKey.values().stream()
+                .filter(seqs -> !seqs.equals(seqs.stream().sorted().collect(Collectors.toList())))
+                .count();
+    }
+
+    private <T> Timed<List<T>> run(Flux<T> flux) {
+        var start = scheduler.now(TimeUnit.MILLISECONDS);
+        var end = new AtomicInteger();
+        CompletableFuture<List<T>> future = flux.collectList()
+                .doOnSuccess(list -> end.set((int) (scheduler.now(TimeUnit.MILLISECONDS) - start)))
+                .toFuture();
+        scheduler.advanceTimeBy(Duration.ofMinutes(10));
+        assertTrue(future.isDone());
+        return new Timed<>(future.join(), Duration.ofMillis(end.get()));
+    }
+
+    private static final class Timed<T> {
+        final T value;
+        final Duration elapsed;
+
+        Timed(T value, Duration elapsed) {
+            this.value = value;
+            this.elapsed = elapsed;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.example.playground.limit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimiterTest {
+
+    private static final Duration BASE_LATENCY = Duration.ofMillis(20);
+    private static final int CALLS = 2000;
+
+    private VirtualTimeScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = VirtualTimeScheduler.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    void unboundedFlatMapFloodsTheBackend() {
+        /*
+         * Lo que hacen hoy errorsDifferentTypes o webfluxSubscribeBehaviour: flatMap con concurrencia 256.
+         * El backend recibe 256 llamadas a la vez y la latencia se dispara.
+         */
+        var backend = new CongestedBackend(10);
+        run(Flux.range(1, CALLS).flatMap(backend::get));
+
+        assertEquals(256, backend.maxInFlight.get());
+        assertTrue(backend.p99() > BASE_LATENCY.toNanos() * 20, "p99 " + backend.p99());
+    }
+
+    @Test
+    void limiterKeepsThroughputNearOptimumWithBoundedLatency() {
+        var backend = new CongestedBackend(10);
+        var limiter = AdaptiveLimiter.aimd(4, 1, 256, 0.9, 1.5, scheduler);
+        var elapsed = run(Flux.range(1, CALLS).transform(limiter.flatMap(backend::get)));
+
+        //optimo: capacity llamadas cada BASE_LATENCY
+        var optimum = (double) CALLS / 10 * BASE_LATENCY.toNanos();
+        assertTrue(optimum / elapsed.toNanos() > 0.8, "throughput ratio " + optimum / elapsed.toNanos());
+        assertTrue(backend.p99() <= BASE_LATENCY.toNanos() * 2, "p99 " + backend.p99());
+        assertTrue(backend.maxInFlight.get() <= 20, "max in flight " + backend.maxInFlight.get());
+    }
+
+    @Test
+    void limiterFollowsCapacityChanges() {
+        /*
+         * A mitad de la carga el backend pierde capacidad (de 20 a 5 llamadas concurrentes sin degradarse)
+         * y el limite tiene que bajar con el.
+         */
+        var backend = new CongestedBackend(20);
+        var limiter = AdaptiveLimiter.aimd(4, 1, 256, 0.9, 1.5, scheduler);
+        var completed = new AtomicInteger();
+        var limitBeforeDrop = new AtomicInteger();
+        run(Flux.range(1, CALLS)
+                .transform(limiter.flatMap(backend::get))
+                .doOnNext(value -> {
+                    var count = completed.incrementAndGet();
+                    if (count == CALLS / 2) {
+                        limitBeforeDrop.set(limiter.limit());
+                        backend.capacity = 5;
+                    } else if (count == CALLS * 3 / 4) {
+                        //solo medimos la latencia una vez que el limite se ha adaptado
+                        backend.latencies.clear();
+                    }
+                }));
+
+        assertTrue(limitBeforeDrop.get() >= 15, "limit before drop " + limitBeforeDrop.get());
+        assertTrue(limiter.limit() <= 10, "limit after drop " + limiter.limit());
+        assertTrue(backend.p99() <= BASE_LATENCY.toNanos() * 2, "p99 " + backend.p99());
+    }
+
+    @Test
+    void failuresShrinkTheLimit() {
+        var limiter = AdaptiveLimiter.aimd(8, 1, 8, 0.5, 2.0, scheduler);
+        run(Flux.range(1, 10)
+                .transform(limiter.flatMap(i -> Mono.delay(BASE_LATENCY, scheduler)
+                        .then(Mono.<Integer>error(new RuntimeException("exception")))))
+                .onErrorContinue((error, data) -> {
+                }));
+
+        assertTrue(limiter.limit() < 8, "limit " + limiter.limit());
+        assertEquals(0, limiter.inFlight());
+        assertEquals(0, limiter.queued());
+    }
+
+    @Test
+    void cancelledCallsReleaseTheirPermit() {
+        var limiter = AdaptiveLimiter.aimd(2, 1, 10, 0.9, 1.5, scheduler);
+        var disposable = Flux.range(1, 10)
+                .transform(limiter.flatMap(i -> Mono.delay(Duration.ofSeconds(1), scheduler)))
+                .subscribe();
+        assertEquals(2, limiter.inFlight());
+        assertEquals(8, limiter.queued());
+
+        disposable.dispose();
+        assertEquals(0, limiter.inFlight());
+        assertEquals(0, limiter.queued());
+    }
+
+    @Test
+    void cancelRacingAGrantNeverLeaksThePermit() throws Exception {
+        var limiter = AdaptiveLimiter.aimd(1, 1, 1, 0.5, 1.5, scheduler);
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 2000; i++) {
+                var holder = Sinks.empty();
+                limiter.run(holder::asMono).subscribe();
+                var waiter = limiter.run(() -> Mono.just(1)).subscribe();
+                assertEquals(1, limiter.queued());
+
+                //el holder libera (y concede el permiso al waiter) mientras el waiter cancela
+                var barrier = new CyclicBarrier(2);
+                var release = executor.submit(() -> {
+                    barrier.await();
+                    return holder.tryEmitEmpty();
+                });
+                var cancel = executor.submit(() -> {
+                    barrier.await();
+                    waiter.dispose();
+                    return null;
+                });
+                release.get(5, TimeUnit.SECONDS);
+                cancel.get(5, TimeUnit.SECONDS);
+
+                assertEquals(0, limiter.inFlight(), "iteration " + i);
+                assertEquals(0, limiter.queued(), "iteration " + i);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void grantsToSynchronousCallsDoNotRecurse() {
+        var limiter = AdaptiveLimiter.aimd(1, 1, 1, 0.5, 1.5, scheduler);
+        var holder = Sinks.empty();
+        limiter.run(holder::asMono).subscribe();
+        var completed = new AtomicInteger();
+        for (int i = 0; i < 50_000; i++) {
+            limiter.run(() -> Mono.just(1)).subscribe(value -> completed.incrementAndGet());
+        }
+        assertEquals(50_000, limiter.queued());
+
+        //cada llamada termina en cuanto recibe el permiso: sin trampolin serian 50000 marcos de pila
+        holder.tryEmitEmpty();
+        assertEquals(50_000, completed.get());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    private Duration run(Flux<?> flux) {
+        var start = scheduler.now(TimeUnit.NANOSECONDS);
+        var done = new AtomicLong(-1);
+        flux.doOnTerminate(() -> done.set(scheduler.now(TimeUnit.NANOSECONDS)))
+                .subscribe();
+        while (done.get() < 0) {
+            scheduler.advanceTimeBy(BASE_LATENCY);
+        }
+        return Duration.ofNanos(done.get() - start);
+    }
+
+    /*
+     * Backend con capacity "hilos": hasta capacity llamadas concurrentes tardan BASE_LATENCY,
+     * por encima la latencia crece en proporcion (las llamadas hacen cola dentro del backend).
+     */
+    private final class CongestedBackend {
+        volatile int capacity;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        CongestedBackend(int capacity) {
+            this.capacity = capacity;
+        }
+
+        Mono<Integer> get(Integer key) {
+            return Mono.defer(() -> {
+                var current = inFlight.incrementAndGet();
+                maxInFlight.accumulateAndGet(current, Math::max);
+                var latency = BASE_LATENCY.toNanos() * Math.max(1, (double) current / capacity);
+                latencies.add((long) latency);
+                return Mono.delay(Duration.ofNanos((long) latency), scheduler)
+                        .doOnSuccess(tick -> inFlight.decrementAndGet())
+                        .doOnCancel(inFlight::decrementAndGet)
+                        .map(tick -> key);
+            });
+        }
+
+        long p99() {
+            var sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.playground.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesAreExact() {
+        var histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        assertEquals(50, histogram.percentile(50));
+        assertEquals(99, histogram.percentile(99));
+        assertEquals(100, histogram.percentile(100));
+        assertEquals(50.5, histogram.mean(), 0.0001);
+    }
+
+    @Test
+    void percentilesStayWithinRelativeError() {
+        var histogram = new LatencyHistogram();
+        var random = new Random(42);
+        var values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) (Math.exp(random.nextDouble() * 20) * 1000);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (var percentile : new double[]{50, 90, 99, 99.9}) {
+            var expected = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            var actual = histogram.percentile(percentile);
+            assertTrue(Math.abs(actual - expected) <= expected * 0.016,
+                    String.format("p%s expected %d was %d", percentile, expected, actual));
+        }
+        assertEquals(values[values.length - 1], histogram.max());
+    }
+
+    @Test
+    void bucketsRoundTrip() {
+        for (long value : new long[]{0, 1, 127, 128, 129, 255, 256, 1_000_000, 4_000_000_000L, Long.MAX_VALUE}) {
+            var index = LatencyHistogram.indexOf(value);
+            var highest = LatencyHistogram.highestEquivalentValue(index);
+            assertTrue(highest >= value, value + " -> " + highest);
+            assertEquals(index, LatencyHistogram.indexOf(highest));
+        }
+    }
+}
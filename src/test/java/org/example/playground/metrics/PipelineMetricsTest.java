@@ -0,0 +1,82 @@
+package org.example.playground.metrics;
+
+import org.example.playground.backend.SimulatedBackend;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipelineMetricsTest {
+
+    @Test
+    void recordsSubscriptionToSignalLatencyPerStage() {
+        var scheduler = VirtualTimeScheduler.create();
+        var metrics = PipelineMetrics.create(scheduler);
+        var mono = Mono.delay(Duration.ofMillis(100), scheduler)
+                .transform(metrics.mono("slow"))
+                .flatMap(tick -> Mono.delay(Duration.ofMillis(10), scheduler).transform(metrics.mono("fast")));
+
+        mono.subscribe();
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+
+        assertEquals(Duration.ofMillis(100), metrics.report("slow").p50().truncatedTo(ChronoUnit.MILLIS));
+        assertEquals(Duration.ofMillis(10), metrics.report("fast").p99().truncatedTo(ChronoUnit.MILLIS));
+        assertEquals(0, metrics.report("slow").inFlight());
+        scheduler.dispose();
+    }
+
+    @Test
+    void tracksInFlightSubscriptionsAndErrors() {
+        var scheduler = VirtualTimeScheduler.create();
+        var metrics = PipelineMetrics.create(scheduler);
+        var flux = Flux.range(1, 10)
+                .flatMap(i -> Mono.delay(Duration.ofMillis(i), scheduler)
+                        .flatMap(tick -> i % 5 == 0 ? Mono.error(new RuntimeException("exception")) : Mono.just(i))
+                        .transform(metrics.mono("lookup"))
+                        .onErrorResume(error -> Mono.empty()));
+
+        flux.subscribe();
+        assertEquals(10, metrics.report("lookup").inFlight());
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+
+        var report = metrics.report("lookup");
+        assertEquals(10, report.subscriptions());
+        assertEquals(10, report.signals());
+        assertEquals(2, report.errors());
+        assertEquals(0, report.inFlight());
+        assertEquals(10, report.maxInFlight());
+        scheduler.dispose();
+    }
+
+    @Test
+    void recordsTheThreadOfEachSignal() {
+        var metrics = PipelineMetrics.create();
+        var backend = SimulatedBackend.boundedElastic(Duration.ofMillis(1));
+        var flux = Flux.range(1, 6)
+                .flatMap(backend::get)
+                .transform(metrics.flux("onBoundedElastic"))
+                .publishOn(Schedulers.parallel())
+                .transform(metrics.flux("onParallel"));
+
+        StepVerifier.create(flux).expectNextCount(6).verifyComplete();
+        assertEquals(Set.of("boundedElastic"), metrics.report("onBoundedElastic").schedulers().keySet());
+        assertEquals(Set.of("parallel"), metrics.report("onParallel").schedulers().keySet());
+        assertTrue(metrics.toString().contains("onParallel"));
+    }
+
+    @Test
+    void emptyMonoRecordsItsCompletion() {
+        var metrics = PipelineMetrics.create();
+        StepVerifier.create(Mono.empty().transform(metrics.mono("empty"))).verifyComplete();
+        assertEquals(1, metrics.report("empty").signals());
+    }
+}
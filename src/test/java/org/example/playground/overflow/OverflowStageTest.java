@@ -0,0 +1,126 @@
+package org.example.playground.overflow;
+
+import org.example.playground.backend.LatencyMode;
+import org.example.playground.backend.SimulatedBackend;
+import org.example.playground.trace.TraceSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OverflowStageTest {
+
+    private static final int CAPACITY = 16;
+    //el productor emite cada 1ms, el backend tarda 10ms y se consume de uno en uno: rafaga 10x
+    private static final Duration PRODUCER_PERIOD = Duration.ofMillis(1);
+    private static final Duration BACKEND_LATENCY = Duration.ofMillis(10);
+
+    private VirtualTimeScheduler scheduler;
+    private SimulatedBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = VirtualTimeScheduler.getOrSet();
+        backend = SimulatedBackend.of(LatencyMode.TIMER, BACKEND_LATENCY, TraceSink.noop());
+    }
+
+    @AfterEach
+    void tearDown() {
+        VirtualTimeScheduler.reset();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = OverflowPolicy.class, names = "ERROR", mode = EnumSource.Mode.EXCLUDE)
+    void memoryStaysAtTheSameCeilingWhateverTheBurst(OverflowPolicy policy) {
+        for (var burst : new int[]{1_000, 10_000}) {
+            var stage = stage(policy);
+            var consumed = run(stage, burst).join();
+            var stats = stage.stats();
+
+            //SAMPLE guarda ademas el ultimo elemento de la ventana en curso
+            var ceiling = stats.capacity() + (policy == OverflowPolicy.SAMPLE ? 1 : 0);
+            assertTrue(stats.maxDepth() <= ceiling, stats.toString());
+            assertEquals(burst, stats.received(), stats.toString());
+            assertEquals(stats.received(), stats.emitted() + stats.dropped(), stats.toString());
+            assertEquals(stats.emitted(), consumed.size(), stats.toString());
+            assertEquals(0, stats.depth(), stats.toString());
+            assertTrue(stats.dropped() > burst / 2, stats.toString());
+        }
+    }
+
+    @Test
+    void unboundedBufferGrowsWithTheBurst() {
+        var depth = new AtomicLong();
+        var maxDepth = new AtomicLong();
+        var burst = 10_000;
+        Flux.interval(PRODUCER_PERIOD)
+                .take(burst)
+                .doOnNext(value -> maxDepth.accumulateAndGet(depth.incrementAndGet(), Math::max))
+                .onBackpressureBuffer()
+                .doOnNext(value -> depth.decrementAndGet())
+                .concatMap(value -> backend.get(value.intValue()))
+                .subscribe();
+        scheduler.advanceTimeBy(BACKEND_LATENCY.multipliedBy(burst));
+        //sin limite la cola llega a casi toda la rafaga: 9 de cada 10 elementos esperan
+        assertTrue(maxDepth.get() > burst * 8 / 10, "max depth " + maxDepth.get());
+    }
+
+    @Test
+    void errorPolicyFailsWithOverflow() {
+        var stage = OverflowStage.of(OverflowPolicy.ERROR, CAPACITY);
+        var result = run(stage, 1_000);
+        assertTrue(result.isCompletedExceptionally());
+        var error = result.handle((value, failure) -> failure).join();
+        assertTrue(Exceptions.isOverflow(error), error.toString());
+        assertEquals(1, stage.stats().dropped());
+        assertTrue(stage.stats().maxDepth() <= CAPACITY, stage.stats().toString());
+    }
+
+    @Test
+    void dropOldestAndLatestKeepTheNewestElements() {
+        for (var policy : List.of(OverflowPolicy.DROP_OLDEST, OverflowPolicy.LATEST, OverflowPolicy.SAMPLE)) {
+            var consumed = run(stage(policy), 1_000).join();
+            assertEquals(999, consumed.get(consumed.size() - 1), policy.toString());
+        }
+    }
+
+    @Test
+    void dropNewestKeepsTheOldestElements() {
+        var consumed = run(OverflowStage.of(OverflowPolicy.DROP_NEWEST, CAPACITY), 1_000).join();
+        //el primero va directo al backend, los CAPACITY siguientes esperan en la cola y el resto de la rafaga sobra
+        assertEquals(0, consumed.get(0));
+        assertEquals(CAPACITY, consumed.get(CAPACITY));
+        assertTrue(consumed.get(consumed.size() - 1) < 999);
+    }
+
+    private OverflowStage stage(OverflowPolicy policy) {
+        if (policy == OverflowPolicy.SAMPLE) {
+            return OverflowStage.sample(BACKEND_LATENCY.multipliedBy(2), CAPACITY, scheduler);
+        }
+        return OverflowStage.of(policy, CAPACITY);
+    }
+
+    private CompletableFuture<List<Integer>> run(OverflowStage stage, int burst) {
+        var result = Flux.interval(PRODUCER_PERIOD)
+                .take(burst)
+                .map(Long::intValue)
+                .transform(stage.<Integer>flux())
+                .concatMap(backend::get)
+                .collectList()
+                .toFuture();
+        scheduler.advanceTimeBy(PRODUCER_PERIOD.multipliedBy(burst).plus(BACKEND_LATENCY.multipliedBy(CAPACITY * 4L)));
+        return result;
+    }
+}
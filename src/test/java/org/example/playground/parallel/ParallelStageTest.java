@@ -0,0 +1,171 @@
+package org.example.playground.parallel;
+
+import org.example.playground.parallel.ParallelStage.Dispatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelStageTest {
+
+    private static final int RAILS = 4;
+    private static final int ELEMENTS = 64;
+
+    private VirtualTimeScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = VirtualTimeScheduler.create();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+    }
+
+    /*
+     * Uno de cada RAILS elementos tarda 100ms y el resto 10ms: con ROUND_ROBIN y un prefetch de al menos
+     * ELEMENTS / RAILS todos los lentos caen en el rail 0.
+     */
+    private Mono<Integer> skewed(int element) {
+        var latency = element % RAILS == 0 ? Duration.ofMillis(100) : Duration.ofMillis(10);
+        return Mono.delay(latency, scheduler).thenReturn(element);
+    }
+
+    @Test
+    void sharedQueueBalancesSkewedLatency() {
+        var roundRobin = ParallelStage.of(Dispatch.ROUND_ROBIN, RAILS, 16, false, scheduler);
+        var shared = ParallelStage.of(Dispatch.SHARED_QUEUE, RAILS, 16, false, scheduler);
+
+        var roundRobinTime = elapsed(roundRobin, this::skewed);
+        var sharedTime = elapsed(shared, this::skewed);
+
+        //ROUND_ROBIN: el rail 0 hace 16 x 100ms mientras los demas acaban sus 16 x 10ms y esperan
+        assertEquals(Duration.ofMillis(1600), roundRobinTime);
+        //SHARED_QUEUE: 16 x 100 + 48 x 10 = 2080ms de trabajo entre 4 rails, mas la cola del ultimo lento
+        assertTrue(sharedTime.compareTo(Duration.ofMillis(700)) < 0, "shared " + sharedTime);
+
+        var railsRoundRobin = roundRobin.stats();
+        assertEquals(Duration.ofMillis(1600), railsRoundRobin.get(0).busy());
+        assertEquals(Duration.ofMillis(160), railsRoundRobin.get(1).busy());
+        var railsShared = shared.stats();
+        var minUtilisation = railsShared.stream().mapToDouble(RailStats::utilisation).min().orElseThrow();
+        assertTrue(minUtilisation > 0.75, railsShared.toString());
+    }
+
+    @Test
+    void everyElementIsProcessedExactlyOnce() {
+        for (var dispatch : Dispatch.values()) {
+            var stage = ParallelStage.of(dispatch, RAILS, 4, false, scheduler);
+            var result = run(stage, this::skewed);
+            assertEquals(range(), result.stream().sorted().collect(Collectors.toList()), dispatch.toString());
+            assertEquals(ELEMENTS, stage.stats().stream().mapToLong(RailStats::completed).sum());
+            assertEquals(0, stage.queued());
+        }
+    }
+
+    @Test
+    void orderedKeepsTheInputOrder() {
+        var random = new Random(42);
+        var latencies = IntStream.range(0, ELEMENTS).map(i -> 1 + random.nextInt(50)).toArray();
+        for (var dispatch : Dispatch.values()) {
+            var stage = ParallelStage.of(dispatch, RAILS, 4, true, scheduler);
+            var result = run(stage, element -> Mono.delay(Duration.ofMillis(latencies[element]), scheduler)
+                    .thenReturn(element));
+            assertEquals(range(), result, dispatch.toString());
+        }
+    }
+
+    @Test
+    void smallPrefetchSkipsBusyRails() {
+        var stage = ParallelStage.of(Dispatch.ROUND_ROBIN, RAILS, 1, false, scheduler);
+        var time = elapsed(stage, this::skewed);
+
+        var rails = stage.stats();
+        //prefetch de parallel, prefetch de publishOn y el que espera en concatMap
+        rails.forEach(rail -> assertTrue(rail.maxQueued() <= 1 + 1 + 1, rail.toString()));
+        //el rail 0 deja de recibir mientras tiene la cola llena y los lentos acaban en otros rails
+        assertTrue(rails.get(0).completed() < ELEMENTS / RAILS, rails.toString());
+        assertTrue(time.compareTo(Duration.ofMillis(1600)) < 0, "round robin " + time);
+    }
+
+    @Test
+    void sharedQueueRunsBlockingMappersOnEveryRail() {
+        var rails = Schedulers.newParallel("rail", RAILS);
+        try {
+            var one = blockingElapsed(ParallelStage.of(Dispatch.SHARED_QUEUE, 1, 16, false, rails));
+            var threads = ConcurrentHashMap.<String>newKeySet();
+            var four = blockingElapsed(ParallelStage.of(Dispatch.SHARED_QUEUE, RAILS, 16, false, rails), threads);
+
+            //8 llamadas de 50ms: ~400ms en un rail, ~100ms en cuatro
+            assertTrue(four.multipliedBy(2).compareTo(one) < 0, "4 rails " + four + " vs 1 rail " + one);
+            assertEquals(RAILS, threads.size(), threads.toString());
+        } finally {
+            rails.dispose();
+        }
+    }
+
+    private Duration blockingElapsed(ParallelStage stage) {
+        return blockingElapsed(stage, ConcurrentHashMap.newKeySet());
+    }
+
+    private Duration blockingElapsed(ParallelStage stage, Set<String> threads) {
+        var start = System.nanoTime();
+        var result = Flux.range(0, 8)
+                .transform(stage.flatMap(element -> {
+                    //el cuerpo sincrono del mapper: tiene que correr en el hilo del rail
+                    threads.add(Thread.currentThread().getName());
+                    sleep(50);
+                    return Mono.just(element);
+                }))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        assertEquals(8, result.size());
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Integer> range() {
+        return IntStream.range(0, ELEMENTS).boxed().collect(Collectors.toList());
+    }
+
+    private List<Integer> run(ParallelStage stage, Function<Integer, Mono<Integer>> mapper) {
+        var result = Flux.range(0, ELEMENTS).transform(stage.flatMap(mapper)).collectList().toFuture();
+        scheduler.advanceTimeBy(Duration.ofMinutes(1));
+        assertTrue(result.isDone());
+        return result.join();
+    }
+
+    private Duration elapsed(ParallelStage stage, Function<Integer, Mono<Integer>> mapper) {
+        var start = scheduler.now(TimeUnit.MILLISECONDS);
+        var end = Flux.range(0, ELEMENTS)
+                .transform(stage.flatMap(mapper))
+                .then(Mono.fromCallable(() -> scheduler.now(TimeUnit.MILLISECONDS)))
+                .toFuture();
+        scheduler.advanceTimeBy(Duration.ofMinutes(1));
+        return Duration.ofMillis(end.join() - start);
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.playground.primitive;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntReducersTest {
+
+    private static final int[] VALUES = new Random(42).ints(100_000, -1_000_000, 1_000_000).toArray();
+
+    @Test
+    void heapAndDirectKeepEveryValueInOrder() {
+        for (var list : List.of(
+                source().as(IntReducers.toHeap(1)).block(),
+                source().as(IntReducers.toDirect(1)).block())) {
+            assertEquals(VALUES.length, list.size(), list.toString());
+            assertArrayEquals(VALUES, list.toArray(), list.toString());
+            assertEquals(VALUES[500], list.get(500));
+            assertArrayEquals(VALUES, list.stream().toArray());
+            assertTrue(list.capacity() >= VALUES.length);
+        }
+        assertTrue(source().as(IntReducers.toDirect()).block().isDirect());
+        assertFalse(source().as(IntReducers.toHeap()).block().isDirect());
+    }
+
+    @Test
+    void presizedListDoesNotGrow() {
+        var list = source().as(IntReducers.toHeap(VALUES.length)).block();
+        assertEquals(VALUES.length, list.capacity());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(VALUES.length));
+    }
+
+    @Test
+    void summaryMatchesTheBoxedList() {
+        var summary = source().as(IntReducers.summary()).block();
+        var expected = IntStream.of(VALUES).summaryStatistics();
+        assertEquals(expected.getCount(), summary.getCount());
+        assertEquals(expected.getSum(), summary.getSum());
+        assertEquals(expected.getMin(), summary.getMin());
+        assertEquals(expected.getMax(), summary.getMax());
+    }
+
+    @Test
+    void distinctMatchesATreeSet() {
+        var bitmap = source().as(IntReducers.distinct()).block();
+        var expected = IntStream.of(VALUES).boxed().collect(Collectors.toCollection(TreeSet::new));
+
+        assertEquals(expected.size(), bitmap.cardinality());
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), bitmap.toArray());
+        assertTrue(bitmap.contains(VALUES[0]));
+        //2M valores posibles: 31 bloques de 8KB
+        assertTrue(bitmap.memoryBytes() < 600 * 1024, bitmap.toString());
+    }
+
+    @Test
+    void bitmapHandlesTheWholeIntRange() {
+        var bitmap = new IntBitmap();
+        for (var value : new int[]{Integer.MAX_VALUE, 0, -1, Integer.MIN_VALUE, 65535, 65536, -65536, 0, -1}) {
+            bitmap.add(value);
+        }
+        assertEquals(7, bitmap.cardinality());
+        assertArrayEquals(new int[]{Integer.MIN_VALUE, -65536, -1, 0, 65535, 65536, Integer.MAX_VALUE},
+                bitmap.toArray());
+        assertFalse(bitmap.contains(1));
+        assertFalse(bitmap.add(Integer.MIN_VALUE));
+    }
+
+    @Test
+    void emptySource() {
+        assertTrue(Flux.<Integer>empty().as(IntReducers.toDirect()).block().isEmpty());
+        assertEquals(0, Flux.<Integer>empty().as(IntReducers.summary()).block().getCount());
+        assertTrue(Flux.<Integer>empty().as(IntReducers.distinct()).block().isEmpty());
+    }
+
+    @Test
+    void rejectsInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> IntList.heap(0));
+        assertThrows(IllegalArgumentException.class, () -> IntList.direct(Integer.MAX_VALUE));
+    }
+
+    private static Flux<Integer> source() {
+        return Flux.fromStream(IntStream.of(VALUES).boxed());
+    }
+}
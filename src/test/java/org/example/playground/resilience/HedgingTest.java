@@ -0,0 +1,158 @@
+package org.example.playground.resilience;
+
+import org.example.playground.backend.LatencyMode;
+import org.example.playground.backend.LatencyModel;
+import org.example.playground.backend.SimulatedBackend;
+import org.example.playground.metrics.PipelineMetrics;
+import org.example.playground.trace.TraceSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgingTest {
+
+    private static final int REQUESTS = 2000;
+
+    private VirtualTimeScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        //Schedulers.parallel() pasa a ser virtual: el Mono.delay del backend TIMER no espera de verdad
+        scheduler = VirtualTimeScheduler.getOrSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        VirtualTimeScheduler.reset();
+    }
+
+    @Test
+    void hedgingCutsTheTailOfALongTailBackend() {
+        var plain = run(paretoBackend(), null);
+        var hedging = Hedging.percentile(90, Duration.ofMillis(50), RequestBudget.of(0.1, 10), scheduler);
+        var hedged = run(paretoBackend(), hedging);
+
+        var plainP99 = plain.report("call").p99();
+        var hedgedP99 = hedged.report("call").p99();
+        assertTrue(hedgedP99.multipliedBy(2).compareTo(plainP99) < 0,
+                "plain p99 " + plainP99 + " hedged p99 " + hedgedP99);
+        //la carga extra queda por debajo del 10% del presupuesto (+ la rafaga inicial)
+        assertTrue(hedging.hedges() <= REQUESTS * 0.1 + 10, "hedges " + hedging.hedges());
+        assertTrue(hedging.hedgeWins() > 0);
+    }
+
+    @Test
+    void loserIsCancelled() {
+        var cancelled = new AtomicInteger();
+        var attempts = new AtomicInteger();
+        var hedging = Hedging.fixedDelay(Duration.ofMillis(100), RequestBudget.unlimited(), scheduler);
+        var mono = hedging.hedge(() -> attempts.incrementAndGet() == 1
+                ? Mono.<Integer>never().doOnCancel(cancelled::incrementAndGet)
+                : Mono.delay(Duration.ofMillis(10), scheduler).thenReturn(2));
+
+        StepVerifier.withVirtualTime(() -> mono, () -> scheduler, Long.MAX_VALUE)
+                .thenAwait(Duration.ofMillis(110))
+                .expectNext(2)
+                .verifyComplete();
+        assertEquals(1, cancelled.get());
+        assertEquals(1, hedging.hedgeWins());
+    }
+
+    @Test
+    void backupWinsAreTimedFromThePrimaryStart() {
+        var hedging = Hedging.percentile(50, Duration.ofMillis(100), RequestBudget.unlimited(), scheduler);
+        //la original no responde nunca y el duplicado tarda 10ms: cada peticion tarda 110ms de punta a punta
+        var flux = Flux.range(1, 30)
+                .concatMap(i -> Mono.defer(() -> {
+                    var attempts = new AtomicInteger();
+                    return hedging.hedge(() -> attempts.incrementAndGet() == 1
+                            ? Mono.<Integer>never()
+                            : Mono.delay(Duration.ofMillis(10), scheduler).thenReturn(i));
+                }));
+
+        StepVerifier.withVirtualTime(() -> flux, () -> scheduler, Long.MAX_VALUE)
+                .thenAwait(Duration.ofMinutes(1))
+                .expectNextCount(30)
+                .verifyComplete();
+        assertEquals(30, hedging.hedgeWins());
+        assertTrue(hedging.currentDelay().compareTo(Duration.ofMillis(100)) >= 0,
+                "delay " + hedging.currentDelay());
+    }
+
+    @Test
+    void fastResponsesAreNotHedged() {
+        var attempts = new AtomicInteger();
+        var hedging = Hedging.fixedDelay(Duration.ofMillis(100), RequestBudget.unlimited(), scheduler);
+        var mono = hedging.hedge(() -> Mono.delay(Duration.ofMillis(50), scheduler)
+                .doOnSubscribe(s -> attempts.incrementAndGet())
+                .thenReturn(1));
+
+        StepVerifier.withVirtualTime(() -> mono, () -> scheduler, Long.MAX_VALUE)
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext(1)
+                .verifyComplete();
+        assertEquals(1, attempts.get());
+        assertEquals(0, hedging.hedges());
+    }
+
+    @Test
+    void budgetCapsTheExtraLoad() {
+        var budget = RequestBudget.of(0.0, 3);
+        var hedging = Hedging.fixedDelay(Duration.ofMillis(10), budget, scheduler);
+        var attempts = new AtomicInteger();
+        var flux = Flux.range(1, 20)
+                .flatMap(i -> hedging.hedge(() -> Mono.delay(Duration.ofMillis(100), scheduler)
+                        .doOnSubscribe(s -> attempts.incrementAndGet())
+                        .thenReturn(i)));
+
+        StepVerifier.withVirtualTime(() -> flux, () -> scheduler, Long.MAX_VALUE)
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNextCount(20)
+                .verifyComplete();
+        assertEquals(3, hedging.hedges());
+        assertEquals(23, attempts.get());
+        assertEquals(17, budget.rejected());
+    }
+
+    @Test
+    void errorsFailFastWithoutHedging() {
+        var attempts = new AtomicInteger();
+        var hedging = Hedging.fixedDelay(Duration.ofMillis(100), RequestBudget.unlimited(), scheduler);
+        var mono = hedging.hedge(() -> Mono.<Integer>error(new RuntimeException("exception"))
+                .doOnSubscribe(s -> attempts.incrementAndGet()));
+
+        StepVerifier.withVirtualTime(() -> mono, () -> scheduler, Long.MAX_VALUE)
+                .expectErrorMessage("exception")
+                .verify();
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        assertEquals(1, attempts.get());
+    }
+
+    private SimulatedBackend paretoBackend() {
+        var latency = LatencyModel.pareto(Duration.ofMillis(10), 1.2, Duration.ofSeconds(4), 42);
+        return SimulatedBackend.of(LatencyMode.TIMER, latency, TraceSink.noop());
+    }
+
+    private PipelineMetrics run(SimulatedBackend backend, Hedging hedging) {
+        var metrics = PipelineMetrics.create(scheduler);
+        var flux = Flux.range(1, REQUESTS)
+                .flatMap(key -> (hedging == null ? backend.get(key) : hedging.hedge(() -> backend.get(key)))
+                        .transform(metrics.mono("call")), 64);
+
+        //dos ejecuciones sobre el mismo reloj virtual: StepVerifier.withVirtualTime lo liberaria al terminar
+        var completed = flux.count().toFuture();
+        scheduler.advanceTimeBy(Duration.ofMinutes(10));
+        assertEquals(REQUESTS, completed.join());
+        return metrics;
+    }
+}
@@ -0,0 +1,186 @@
+package org.example.playground.resilience;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResilienceTest {
+
+    private static final int CALLERS = 200;
+
+    private VirtualTimeScheduler scheduler;
+    private final AtomicInteger backendCalls = new AtomicInteger();
+    private final AtomicBoolean outage = new AtomicBoolean(true);
+
+    @BeforeEach
+    void setUp() {
+        //Retry.backoff y fixedDelay usan Schedulers.parallel(), que pasa a ser virtual
+        scheduler = VirtualTimeScheduler.getOrSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        VirtualTimeScheduler.reset();
+    }
+
+    /*
+     * Como monoIntegerException, pero contando las llamadas que llegan al backend y con la caida controlada.
+     */
+    private Mono<Integer> monoIntegerException() {
+        return Mono.defer(() -> {
+            backendCalls.incrementAndGet();
+            if (outage.get()) {
+                return Mono.error(new RuntimeException("exception"));
+            }
+            return Mono.just(1);
+        });
+    }
+
+    @Test
+    void fixedDelayRetriesMultiplyTheLoadDuringAnOutage() {
+        /*
+         * Lo que hace hoy monoIntegerExceptionSaveETAG: 200 llamantes x (1 + 3 reintentos) = 800 llamadas.
+         */
+        runCallers(() -> monoIntegerException().retryWhen(Retry.fixedDelay(3, Duration.ofSeconds(2))));
+        assertEquals(CALLERS * 4, backendCalls.get());
+    }
+
+    @Test
+    void breakerAndBudgetBoundTheLoadDuringAnOutage() {
+        var breaker = CircuitBreaker.of(20, 10, 0.5, Duration.ofSeconds(5), 3, scheduler);
+        var budget = RequestBudget.of(0.1, 10);
+        var resilience = Resilience.of(breaker, budget, Retry.backoff(3, Duration.ofSeconds(2)).jitter(0.5));
+
+        runCallers(() -> resilience.apply(monoIntegerException()));
+
+        //el breaker abre tras minimumCalls fallos y solo deja pasar las llamadas de prueba cada openDuration
+        assertTrue(backendCalls.get() < CALLERS * 0.2, "backend calls " + backendCalls.get());
+        assertTrue(budget.granted() <= budget.requests() * 0.1 + 10, "retries " + budget.granted());
+        assertTrue(breaker.rejected() > 0);
+    }
+
+    @Test
+    void breakerClosesAgainWhenTheBackendRecovers() {
+        var breaker = CircuitBreaker.of(20, 10, 0.5, Duration.ofSeconds(5), 3, scheduler);
+        var resilience = Resilience.of(breaker, RequestBudget.of(0.1, 10), Retry.backoff(3, Duration.ofSeconds(2)));
+
+        runCallers(() -> resilience.apply(monoIntegerException()));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        outage.set(false);
+        scheduler.advanceTimeBy(Duration.ofSeconds(5));
+        var results = Flux.range(1, 5)
+                .flatMap(i -> resilience.apply(monoIntegerException()), 1)
+                .collectList()
+                .toFuture();
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        assertEquals(List.of(1, 1, 1, 1, 1), results.join());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void halfOpenFailureOpensTheCircuitAgain() {
+        var breaker = CircuitBreaker.of(4, 2, 0.5, Duration.ofSeconds(5), 1, scheduler);
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(breaker.protect(monoIntegerException())).verifyErrorMessage("exception");
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        StepVerifier.create(breaker.protect(monoIntegerException())).verifyError(CallNotPermittedException.class);
+
+        scheduler.advanceTimeBy(Duration.ofSeconds(5));
+        StepVerifier.create(breaker.protect(monoIntegerException())).verifyErrorMessage("exception");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(3, backendCalls.get());
+    }
+
+    @Test
+    void retriesAreJittered() {
+        var resilience = Resilience.of(CircuitBreaker.of(100, 100, 1.0, Duration.ofSeconds(5), 1, scheduler),
+                RequestBudget.unlimited(), Retry.backoff(1, Duration.ofSeconds(2)).jitter(0.5));
+        var attempts = new CopyOnWriteArrayList<Long>();
+        var caller = Mono.defer(() -> {
+            attempts.add(scheduler.now(TimeUnit.MILLISECONDS));
+            return monoIntegerException();
+        });
+
+        Flux.range(1, 2).flatMap(i -> resilience.apply(caller).onErrorResume(error -> Mono.empty())).subscribe();
+        scheduler.advanceTimeBy(Duration.ofSeconds(10));
+
+        //dos llamantes que fallan a la vez no reintentan a la vez
+        assertEquals(4, attempts.size());
+        assertNotEquals(attempts.get(2), attempts.get(3));
+    }
+
+    @Test
+    void keepsTheRetryFilterOfTheBackoffSpec() {
+        var resilience = Resilience.of(CircuitBreaker.ofDefaults(), RequestBudget.unlimited(),
+                Retry.backoff(3, Duration.ofSeconds(2)).filter(error -> error.getClass().equals(RuntimeException.class)));
+
+        var mono = resilience.apply(Mono.defer(() -> {
+            backendCalls.incrementAndGet();
+            return Mono.<Integer>error(new IllegalStateException("not retryable"));
+        }));
+        StepVerifier.create(mono).verifyError(IllegalStateException.class);
+        assertEquals(1, backendCalls.get());
+    }
+
+    @Test
+    void budgetPaysOnlyForRetriesThatHappen() {
+        var budget = RequestBudget.of(0, 10);
+        var resilience = Resilience.of(CircuitBreaker.of(100, 100, 1.0, Duration.ofSeconds(5), 1, scheduler),
+                budget, Retry.backoff(2, Duration.ofMillis(100)));
+
+        var result = resilience.apply(monoIntegerException()).toFuture();
+        scheduler.advanceTimeBy(Duration.ofSeconds(10));
+
+        assertTrue(result.isCompletedExceptionally());
+        //un intento y dos reintentos: el tercer fallo agota los intentos y no gasta token
+        assertEquals(3, backendCalls.get());
+        assertEquals(backendCalls.get() - 1, budget.granted());
+        assertEquals(0, budget.rejected());
+    }
+
+    @Test
+    void emptyBudgetPropagatesTheOriginalError() {
+        var resilience = Resilience.of(CircuitBreaker.of(100, 100, 1.0, Duration.ofSeconds(5), 1, scheduler),
+                RequestBudget.of(0, 1), Retry.backoff(3, Duration.ofMillis(100)));
+
+        var result = resilience.apply(monoIntegerException()).toFuture();
+        scheduler.advanceTimeBy(Duration.ofSeconds(10));
+
+        //un reintento con el unico token y el siguiente fallo sale tal cual
+        assertEquals(2, backendCalls.get());
+        var error = assertThrows(CompletionException.class, result::join);
+        assertEquals("exception", error.getCause().getMessage());
+    }
+
+    /*
+     * Llega un llamante cada 10ms durante 2s, todos contra el backend caido.
+     */
+    private void runCallers(Supplier<Mono<Integer>> caller) {
+        Flux.range(1, CALLERS)
+                .delayElements(Duration.ofMillis(10))
+                .flatMap(i -> caller.get().onErrorResume(error -> Mono.empty()))
+                .subscribe();
+        scheduler.advanceTimeBy(Duration.ofMinutes(1));
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.playground.scheduler;
+
+import org.example.playground.scheduler.SchedulerComparison.Kind;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchedulerComparisonTest {
+
+    private static final int CALLS = 200;
+    private static final Duration LATENCY = Duration.ofMillis(50);
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Test
+    void virtualThreadsRunTheWholeFanOutAtOnce() {
+        var result = SchedulerComparison.run(Kind.VIRTUAL, CALLS, LATENCY, TIMEOUT);
+        assertComplete(result);
+        //todas las llamadas en vuelo a la vez: poco mas que la latencia de una
+        assertTrue(result.elapsed().compareTo(LATENCY.multipliedBy(20)) < 0, result.toString());
+        //los hilos de plataforma que llevan los virtuales son como mucho uno por CPU (mas algun compensador)
+        assertTrue(result.peakThreads() < CALLS / 4, result.toString());
+    }
+
+    @Test
+    void parallelQueuesTheFanOutBehindItsWorkers() {
+        var result = SchedulerComparison.run(Kind.PARALLEL, CALLS, LATENCY, TIMEOUT);
+        assertComplete(result);
+        var rounds = (CALLS + Schedulers.DEFAULT_POOL_SIZE - 1) / Schedulers.DEFAULT_POOL_SIZE;
+        assertTrue(result.elapsed().compareTo(LATENCY.multipliedBy(rounds)) >= 0, result.toString());
+        assertTrue(result.p99().compareTo(result.p50()) >= 0, result.toString());
+    }
+
+    @Test
+    void boundedElasticCapsItsThreads() {
+        var result = SchedulerComparison.run(Kind.BOUNDED_ELASTIC, CALLS, LATENCY, TIMEOUT);
+        assertComplete(result);
+        assertTrue(result.peakThreads() <= Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE, result.toString());
+    }
+
+    @Test
+    void reportsWhatCompletedBeforeTheTimeout() {
+        var result = SchedulerComparison.run(Kind.PARALLEL, CALLS, LATENCY, Duration.ofMillis(300));
+        assertTrue(result.timedOut());
+        assertTrue(result.completed() < CALLS, result.toString());
+    }
+
+    private static void assertComplete(SchedulerComparison.Result result) {
+        assertFalse(result.timedOut(), result.toString());
+        assertEquals(CALLS, result.completed(), result.toString());
+        assertEquals(0, result.errors(), result.toString());
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.playground.scheduler;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadSchedulersTest {
+
+    @Test
+    void runsEachTaskOnANamedVirtualThread() {
+        var scheduler = VirtualThreadSchedulers.create("test-virtual");
+        try {
+            var mono = Mono.fromCallable(Thread::currentThread).subscribeOn(scheduler);
+            StepVerifier.create(mono)
+                    .assertNext(thread -> {
+                        assertTrue(thread.isVirtual());
+                        assertTrue(thread.getName().startsWith("test-virtual-"), thread.getName());
+                    })
+                    .verifyComplete();
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    @Test
+    void blockingCallsDoNotPinPlatformThreads() {
+        /*
+         * 10000 Thread.sleep de 200ms a la vez: con un hilo de plataforma por llamada no cabrian,
+         * con hilos virtuales tardan poco mas que una sola llamada.
+         */
+        var calls = 10_000;
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var start = System.nanoTime();
+        var mono = Flux.range(1, calls)
+                .flatMap(i -> Mono.fromCallable(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(200);
+                    running.decrementAndGet();
+                    return i;
+                }).subscribeOn(VirtualThreadSchedulers.shared()), calls)
+                .count();
+        StepVerifier.create(mono).expectNext((long) calls).verifyComplete();
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(5)) < 0, "elapsed " + elapsed);
+        assertTrue(maxRunning.get() > calls / 2, "max running " + maxRunning.get());
+    }
+}
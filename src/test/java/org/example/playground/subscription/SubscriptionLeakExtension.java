@@ -0,0 +1,40 @@
+package org.example.playground.subscription;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.AssertionFailedError;
+import reactor.core.Disposable;
+
+/*
+ * @ExtendWith(SubscriptionLeakExtension.class): apunta todas las suscripciones que se hacen durante el test y lo
+ * hace fallar si alguna sigue viva al terminar, con el leakReport(). Las que quedan se cancelan para que no
+ * sigan corriendo en el test siguiente.
+ */
+public class SubscriptionLeakExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(SubscriptionLeakExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        var registry = SubscriptionRegistry.create();
+        var hook = registry.trackAll(registry.scope(context.getDisplayName()));
+        var store = context.getStore(NAMESPACE);
+        store.put(SubscriptionRegistry.class, registry);
+        store.put(Disposable.class, hook);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        var store = context.getStore(NAMESPACE);
+        store.remove(Disposable.class, Disposable.class).dispose();
+        var registry = store.remove(SubscriptionRegistry.class, SubscriptionRegistry.class);
+        var active = registry.active();
+        var report = registry.leakReport();
+        registry.dispose();
+        if (active > 0) {
+            throw new AssertionFailedError("test left " + report);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package org.example.playground.subscription;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.Mockito;
+import org.opentest4j.AssertionFailedError;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubscriptionRegistryTest {
+
+    private VirtualTimeScheduler scheduler;
+    private SubscriptionRegistry registry;
+    private final AtomicInteger cancelled = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        scheduler = VirtualTimeScheduler.create();
+        registry = SubscriptionRegistry.create(scheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.dispose();
+        scheduler.dispose();
+    }
+
+    @Test
+    void tracksLiveSubscriptionsWithOriginAndAge() {
+        var scope = registry.scope("request-1");
+        List.of(1, 2, 3).forEach(element -> scope.subscribe(call(element, 100)));
+        scheduler.advanceTimeBy(Duration.ofMillis(40));
+
+        assertEquals(3, registry.active());
+        assertEquals(3, scope.active());
+        var live = registry.snapshot();
+        assertEquals(3, live.size());
+        var first = live.get(0);
+        assertEquals("request-1", first.scope());
+        assertEquals(Duration.ofMillis(40), first.age());
+        assertTrue(first.origin().contains("SubscriptionRegistryTest"), first.origin());
+        assertTrue(registry.leakReport().startsWith("3 live subscription(s)"), registry.leakReport());
+
+        //al terminar salen solas
+        scheduler.advanceTimeBy(Duration.ofMillis(60));
+        assertEquals(0, registry.active());
+        assertEquals(3, registry.finished());
+        assertEquals("no live subscriptions", registry.leakReport());
+    }
+
+    @Test
+    void disposingAScopeCancelsOnlyItsSubscriptions() {
+        var request1 = registry.scope("request-1");
+        var request2 = registry.scope("request-2");
+        request1.subscribe(call(1, 100));
+        request1.subscribe(Flux.interval(Duration.ofMillis(10), scheduler));
+        var other = request2.subscribe(call(2, 100));
+
+        request1.dispose();
+
+        //el interval no cuenta en cancelled: solo la llamada
+        assertEquals(1, cancelled.get());
+        assertEquals(0, request1.active());
+        assertEquals(1, registry.active());
+        assertEquals(2, registry.disposedByScope());
+        assertFalse(other.isDisposed());
+        //lo que llega despues de cerrar el scope no empieza
+        var late = new AtomicInteger();
+        request1.subscribe(call(3, 100).doOnSuccess(value -> late.incrementAndGet()));
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        assertEquals(0, late.get());
+        assertEquals(0, registry.active());
+    }
+
+    @Test
+    void scopeTimesOut() {
+        var scope = registry.scope("request-1", Duration.ofMillis(250));
+        scope.subscribe(call(1, 100));
+        scope.subscribe(call(2, 1000));
+
+        scheduler.advanceTimeBy(Duration.ofMillis(250));
+
+        assertTrue(scope.isDisposed());
+        assertEquals(0, registry.active());
+        assertEquals(1, registry.finished());
+        assertEquals(1, registry.disposedByScope());
+        assertEquals(1, cancelled.get());
+    }
+
+    @Test
+    void trackedPublishersCanBeComposed() {
+        var scope = registry.scope("request-1");
+        var result = scope.track(call(1, 100))
+                .zipWith(scope.track(Flux.range(1, 3).collectList()))
+                .toFuture();
+        assertEquals(1, scope.active());
+        scheduler.advanceTimeBy(Duration.ofMillis(100));
+        assertEquals(1, result.join().getT1());
+        assertEquals(0, scope.active());
+        assertEquals(2, registry.subscribed());
+    }
+
+    @Test
+    void trackedMonoFailsWhenTheScopeTimesOut() {
+        var scope = registry.scope("request-1", Duration.ofMillis(250));
+        var result = scope.track(call(1, 1000)).zipWith(scope.track(call(2, 100))).toFuture();
+
+        scheduler.advanceTimeBy(Duration.ofMillis(250));
+
+        assertTrue(result.isCompletedExceptionally());
+        var error = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertEquals("scope request-1 timed out after 250ms", error.getCause().getMessage());
+        assertEquals(0, registry.active());
+    }
+
+    @Test
+    void trackedMonoFailsWhenTheScopeIsClosed() {
+        var scope = registry.scope("request-1");
+        var running = scope.track(call(1, 1000)).toFuture();
+
+        scope.dispose();
+        var late = scope.track(call(2, 100)).toFuture();
+
+        //join() relanza la CancellationException tal cual, sin envolverla
+        var error = assertThrows(CancellationException.class, running::join);
+        assertEquals("scope request-1 closed", error.getMessage());
+        //lo que se suscribe con el scope ya cerrado falla sin llegar a empezar
+        assertTrue(late.isCompletedExceptionally());
+        assertThrows(CancellationException.class, late::join);
+        //la que estaba en curso y la tardia, cancelada en cuanto se suscribe
+        assertEquals(2, cancelled.get());
+    }
+
+    @Test
+    void closingWhileAnotherThreadEmitsKeepsSignalsSerial() throws InterruptedException {
+        for (int i = 0; i < 20; i++) {
+            var scope = registry.scope("request-" + i);
+            var inOnNext = new AtomicBoolean();
+            var overlapped = new AtomicBoolean();
+            var emitting = new CountDownLatch(1);
+            var terminated = new CountDownLatch(1);
+            scope.track(Flux.interval(Duration.ofMillis(1), Schedulers.parallel()))
+                    .subscribe(new BaseSubscriber<Long>() {
+                        @Override
+                        protected void hookOnNext(Long value) {
+                            inOnNext.set(true);
+                            emitting.countDown();
+                            //un onNext lento: el cierre llega casi siempre mientras dura
+                            LockSupport.parkNanos(Duration.ofMillis(2).toNanos());
+                            inOnNext.set(false);
+                        }
+
+                        @Override
+                        protected void hookOnError(Throwable error) {
+                            overlapped.set(inOnNext.get());
+                            terminated.countDown();
+                        }
+                    });
+            assertTrue(emitting.await(5, TimeUnit.SECONDS));
+
+            scope.dispose();
+
+            assertTrue(terminated.await(5, TimeUnit.SECONDS));
+            assertFalse(overlapped.get(), "onError delivered during onNext");
+        }
+    }
+
+    @Test
+    void cancelledByTheSubscriberIsNotALeak() {
+        var scope = registry.scope("request-1");
+        var disposable = scope.subscribe(call(1, 100));
+        disposable.dispose();
+        assertEquals(0, registry.active());
+        assertEquals(1, registry.finished());
+        assertEquals(1, cancelled.get());
+    }
+
+    @Test
+    void registryDisposeClosesEveryScope() {
+        registry.scope("a").subscribe(call(1, 100));
+        registry.scope("b").subscribe(call(2, 100));
+        registry.dispose();
+        assertEquals(0, registry.active());
+        assertEquals(2, cancelled.get());
+        assertTrue(registry.scope("c").isDisposed());
+    }
+
+    @Test
+    void trackAllSeesFireAndForgetSubscribe() {
+        var scope = registry.scope("global");
+        var hook = registry.trackAll(scope);
+        try {
+            call(1, 100).subscribe();
+        } finally {
+            hook.dispose();
+        }
+        assertTrue(registry.active() >= 1);
+        assertTrue(registry.snapshot().stream()
+                .anyMatch(subscription -> subscription.origin().contains("trackAllSeesFireAndForgetSubscribe")),
+                registry.leakReport());
+        //sin hook ya no se apunta nada
+        var before = registry.subscribed();
+        call(2, 100).subscribe();
+        assertEquals(before, registry.subscribed());
+        scheduler.advanceTimeBy(Duration.ofMillis(100));
+        assertEquals(0, registry.active());
+    }
+
+    @Test
+    void leakExtensionFailsWhenSubscriptionsOutliveTheTest() {
+        var extension = new SubscriptionLeakExtension();
+        var context = extensionContext();
+
+        extension.beforeEach(context);
+        call(1, 100).subscribe();
+        var failure = assertThrows(AssertionFailedError.class, () -> extension.afterEach(context));
+
+        assertTrue(failure.getMessage().startsWith("test left "), failure.getMessage());
+        assertTrue(failure.getMessage().contains("leakExtensionFailsWhenSubscriptionsOutliveTheTest"),
+                failure.getMessage());
+        //la suscripcion que quedaba se ha cancelado
+        assertEquals(1, cancelled.get());
+
+        extension.beforeEach(context);
+        var value = call(2, 100).toFuture();
+        scheduler.advanceTimeBy(Duration.ofMillis(100));
+        assertEquals(2, value.join());
+        extension.afterEach(context);
+    }
+
+    private Mono<Integer> call(int value, long millis) {
+        return Mono.delay(Duration.ofMillis(millis), scheduler).thenReturn(value)
+                .doOnCancel(cancelled::incrementAndGet);
+    }
+
+    private static ExtensionContext extensionContext() {
+        var context = Mockito.mock(ExtensionContext.class);
+        var store = new HashMap<Object, Object>();
+        var extensionStore = Mockito.mock(ExtensionContext.Store.class);
+        Mockito.when(context.getDisplayName()).thenReturn("leak-test");
+        Mockito.when(context.getStore(Mockito.any())).thenReturn(extensionStore);
+        Mockito.doAnswer(invocation -> store.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(extensionStore).put(Mockito.any(), Mockito.any());
+        Mockito.when(extensionStore.remove(Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> store.remove(invocation.getArgument(0)));
+        return context;
+    }
+}
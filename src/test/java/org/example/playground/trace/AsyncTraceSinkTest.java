@@ -0,0 +1,105 @@
+package org.example.playground.trace;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncTraceSinkTest {
+
+    @Test
+    void writesEveryTraceInOrderFromOneProducer() {
+        var bytes = new ByteArrayOutputStream();
+        try (var sink = TraceSink.async(new PrintStream(bytes, true, StandardCharsets.UTF_8), 8)) {
+            for (int i = 0; i < 5; i++) {
+                sink.trace("monoInteger %d", i);
+            }
+            sink.trace("monoIntegerOne");
+            sink.trace("searching[%s] %s", List.of(1, 2), "x");
+            sink.flush();
+        }
+        var expected = IntStream.range(0, 5).mapToObj(i -> "monoInteger " + i).collect(Collectors.toList());
+        expected.add("monoIntegerOne");
+        expected.add("searching[[1, 2]] x");
+        assertEquals(expected, bytes.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList()));
+    }
+
+    @Test
+    void concurrentProducersLoseNothingWhileThereIsRoom() throws InterruptedException {
+        var bytes = new ByteArrayOutputStream();
+        try (var sink = TraceSink.async(new PrintStream(bytes, true, StandardCharsets.UTF_8), 1 << 14)) {
+            var threads = IntStream.range(0, 4)
+                    .mapToObj(t -> new Thread(() -> {
+                        for (int i = 0; i < 2000; i++) {
+                            sink.trace("rail %d", t);
+                        }
+                    }))
+                    .collect(Collectors.toList());
+            threads.forEach(Thread::start);
+            for (var thread : threads) {
+                thread.join();
+            }
+            sink.flush();
+            assertEquals(0, sink.dropped());
+        }
+        var lines = bytes.toString(StandardCharsets.UTF_8).lines().collect(Collectors.groupingBy(line -> line,
+                Collectors.counting()));
+        assertEquals(4, lines.size());
+        lines.values().forEach(count -> assertEquals(2000L, count));
+    }
+
+    @Test
+    void formattingHappensOnTheSinkThread() {
+        var formattedOn = new AtomicReference<String>();
+        var argument = new Object() {
+            @Override
+            public String toString() {
+                formattedOn.set(Thread.currentThread().getName());
+                return "lazy";
+            }
+        };
+        try (var sink = TraceSink.async(new PrintStream(OutputStream.nullOutputStream()), 8)) {
+            sink.trace("value %s", argument);
+            sink.flush();
+        }
+        assertEquals("trace-sink", formattedOn.get());
+    }
+
+    @Test
+    void dropsInsteadOfBlockingWhenFull() throws InterruptedException {
+        var blocked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var slowOut = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        try (var sink = TraceSink.async(slowOut, 4)) {
+            sink.trace("first");
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+            //el hilo del sink esta bloqueado escribiendo "first": caben 4 mas y el resto se descarta
+            for (int i = 0; i < 10; i++) {
+                sink.trace("next %d", i);
+            }
+            assertEquals(6, sink.dropped());
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.playground.warmup;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WarmupTest {
+
+    private Scheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+
+    @Test
+    void startsEveryWorkerThread() {
+        scheduler = Schedulers.newParallel("warmup-test", 4);
+
+        var report = Warmup.of(2, 1, Duration.ofSeconds(5)).scheduler(scheduler, 4).run();
+
+        assertFalse(report.timedOut());
+        assertEquals(4, Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("warmup-test-"))
+                .count());
+    }
+
+    @Test
+    void runsEachTemplateWithANewChain() {
+        var assembled = new AtomicInteger();
+        var subscribed = new AtomicInteger();
+
+        var report = Warmup.of(50, 8, Duration.ofSeconds(5))
+                .pipeline("delay", () -> {
+                    assembled.incrementAndGet();
+                    return Mono.delay(Duration.ofMillis(1)).doOnSubscribe(s -> subscribed.incrementAndGet());
+                })
+                .pipeline("flux", () -> Flux.range(1, 3))
+                .run();
+
+        assertEquals(50, assembled.get());
+        assertEquals(50, subscribed.get());
+        assertEquals(2, report.stages().size());
+        var delay = report.stage("delay").orElseThrow();
+        assertEquals(50, delay.runs());
+        assertEquals(0, delay.errors());
+        assertTrue(delay.first().orElseThrow().compareTo(Duration.ofMillis(1)) >= 0);
+        assertTrue(delay.steady().isPresent());
+        assertEquals(50, report.stage("flux").orElseThrow().runs());
+    }
+
+    @Test
+    void errorsAreCountedAndDoNotStopTheWarmup() {
+        var calls = new AtomicInteger();
+
+        var report = Warmup.of(10, 2, Duration.ofSeconds(5))
+                .pipeline("failing", () -> calls.incrementAndGet() % 2 == 0
+                        ? Mono.error(new IllegalStateException("boom"))
+                        : Mono.just(1))
+                .pipeline("next", () -> Mono.just(2))
+                .run();
+
+        var failing = report.stage("failing").orElseThrow();
+        assertEquals(10, failing.runs());
+        assertEquals(5, failing.errors());
+        assertEquals(10, report.stage("next").orElseThrow().runs());
+        assertFalse(report.timedOut());
+    }
+
+    @Test
+    void stopsAtTheTimeout() {
+        var report = Warmup.of(10, 1, Duration.ofMillis(200))
+                .pipeline("slow", () -> Mono.delay(Duration.ofMillis(100)))
+                .pipeline("never", () -> Mono.just(1))
+                .run();
+
+        assertTrue(report.timedOut());
+        assertEquals(1, report.stages().size());
+        var slow = report.stage("slow").orElseThrow();
+        assertTrue(slow.first().isPresent());
+        assertTrue(slow.steady().isEmpty());
+        assertTrue(report.elapsed().compareTo(Duration.ofSeconds(1)) < 0, report.toString());
+        assertTrue(report.toString().contains("timed out"), report.toString());
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> Warmup.of(1, 1, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> Warmup.of(2, 0, Duration.ofSeconds(1)));
+        var warmup = Warmup.of(2, 1, Duration.ofSeconds(1)).pipeline("a", Mono::empty);
+        assertThrows(IllegalArgumentException.class, () -> warmup.pipeline("a", Mono::empty));
+        assertThrows(IllegalArgumentException.class, () -> warmup.scheduler(Schedulers.immediate(), 0));
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.playground.web;
+
+import io.netty.channel.ChannelOption;
+import org.example.playground.backend.SimulatedBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "playground.backend.latency=" + FanOutStreamTest.LATENCY_MS + "ms")
+class FanOutStreamTest {
+
+    static final int LATENCY_MS = 10;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SimulatedBackend backend;
+
+    private WebClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebClient.create("http://localhost:" + port);
+    }
+
+    @Test
+    void timeToFirstElementDoesNotDependOnTheResultSize() {
+        firstElement(10);
+        var small = firstElement(100);
+        var large = firstElement(20_000);
+        /*
+         * Con collectList el primer byte sale cuando acaba la llamada mas lenta: 20000 / 256 rondas de 10ms.
+         * En streaming sale con el primer resultado, tarde lo que tarde el resto.
+         */
+        var collected = elapsed(client.get().uri("/fan-out?size=10000").retrieve().bodyToMono(String.class));
+        assertTrue(large.compareTo(small.plusMillis(200)) < 0, "small " + small + ", large " + large);
+        assertTrue(large.compareTo(collected) < 0, "stream " + large + ", collectList " + collected);
+    }
+
+    @Test
+    void errorsTravelInBandAndTheStreamContinues() {
+        var results = client.get().uri("/fan-out/stream?size=30&failEvery=3")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .bodyToFlux(FanOutResult.class)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        assertEquals(30, results.size());
+        assertEquals(10, results.stream().filter(FanOutResult::failed).count());
+        assertTrue(results.stream().filter(FanOutResult::failed).allMatch(result -> result.key() % 3 == 0));
+        assertTrue(results.stream().filter(result -> !result.failed())
+                .allMatch(result -> result.value() == result.key()));
+    }
+
+    @Test
+    void serverSentEventsCarryTheKeyAndTheOutcome() {
+        List<ServerSentEvent<FanOutResult>> events = client.get().uri("/fan-out/stream?size=6&failEvery=2")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<FanOutResult>>() {
+                })
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        assertEquals(6, events.size());
+        for (var event : events) {
+            assertEquals(String.valueOf(event.data().key()), event.id());
+            assertEquals(event.data().key() % 2 == 0 ? "error" : "result", event.event());
+        }
+    }
+
+    @Test
+    void parameterisedAcceptStillSelectsServerSentEvents() {
+        for (var accept : List.of("text/event-stream;charset=UTF-8",
+                "application/json;q=0.5, text/event-stream;q=0.9")) {
+            var contentType = client.get().uri("/fan-out/stream?size=3")
+                    .header("Accept", accept)
+                    .exchangeToMono(response -> Mono.just(response.headers().contentType().orElseThrow()))
+                    .block(Duration.ofSeconds(10));
+            assertTrue(MediaType.TEXT_EVENT_STREAM.equalsTypeAndSubtype(contentType), accept + " -> " + contentType);
+        }
+        var wildcard = client.get().uri("/fan-out/stream?size=3")
+                .header("Accept", "*/*")
+                .exchangeToMono(response -> Mono.just(response.headers().contentType().orElseThrow()))
+                .block(Duration.ofSeconds(10));
+        assertTrue(MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(wildcard), "*/* -> " + wildcard);
+    }
+
+    @Test
+    void aStalledClientStopsTheFanOut() {
+        /*
+         * El cliente lee 10 elementos y deja de pedir. El servidor escribe hasta llenar los buffers de la conexion
+         * (unos MB entre Netty y los sockets) y despues flatMap deja de pedir claves: las llamadas al backend se paran
+         * muy lejos de los diez millones, la memoria no depende del tamaño del resultado.
+         */
+        var stalled = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create()
+                        .option(ChannelOption.SO_RCVBUF, 4096)))
+                .build();
+        var received = new AtomicInteger();
+        var subscriber = new BaseSubscriber<FanOutResult>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(10);
+            }
+
+            @Override
+            protected void hookOnNext(FanOutResult value) {
+                received.incrementAndGet();
+            }
+        };
+        var before = backend.roundTrips();
+        stalled.get().uri("/fan-out/stream?size=10000000")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .bodyToFlux(FanOutResult.class)
+                .subscribe(subscriber);
+        try {
+            var plateau = waitForPlateau(before);
+            assertEquals(10, received.get());
+            assertTrue(plateau < 500_000, "backend calls " + plateau);
+        } finally {
+            subscriber.dispose();
+        }
+    }
+
+    /*
+     * Espera a que las llamadas al backend dejen de crecer durante medio segundo.
+     */
+    private long waitForPlateau(long before) {
+        var last = -1L;
+        for (int i = 0; i < 40; i++) {
+            sleep(Duration.ofMillis(500));
+            var current = backend.roundTrips() - before;
+            if (current == last) {
+                return current;
+            }
+            last = current;
+        }
+        throw new AssertionError("backend calls kept growing: " + last);
+    }
+
+    private Duration firstElement(int size) {
+        return elapsed(client.get().uri("/fan-out/stream?size={size}", size)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .bodyToFlux(FanOutResult.class)
+                .next());
+    }
+
+    private static Duration elapsed(Mono<?> mono) {
+        var start = System.nanoTime();
+        mono.block(Duration.ofSeconds(30));
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.playground.web;
+
+import org.example.playground.metrics.LatencyHistogram;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Generador de carga en lazo cerrado: concurrency clientes lanzan peticiones seguidas contra el servidor
+ * hasta completar requests. Mide peticiones por segundo, percentiles de latencia y el uso de CPU de los
+ * event loops del servidor (hilos reactor-http-*).
+ *
+ * El cliente corre en sus propios event loops ("load-client-*") para no contarlo como carga del servidor.
+ */
+final class LoadGenerator implements AutoCloseable {
+
+    private static final String SERVER_LOOP_PREFIX = "reactor-http-";
+
+    private final LoopResources loops;
+    private final ConnectionProvider connections;
+    private final WebClient client;
+    private final int concurrency;
+
+    private LoadGenerator(String baseUrl, int concurrency) {
+        this.concurrency = concurrency;
+        this.loops = LoopResources.create("load-client", 1, true);
+        this.connections = ConnectionProvider.builder("load-client")
+                .maxConnections(concurrency)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        var httpClient = HttpClient.create(connections).runOn(loops);
+        this.client = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    static LoadGenerator create(int port, int concurrency) {
+        return new LoadGenerator("http://localhost:" + port, concurrency);
+    }
+
+    Report run(String uri, int requests) {
+        var latencies = new LatencyHistogram();
+        var errors = new LongAdder();
+        var eventLoops = EventLoopCpu.start();
+        var start = System.nanoTime();
+        Flux.range(0, requests)
+                .flatMap(i -> Mono.defer(() -> {
+                    var issued = System.nanoTime();
+                    return client.get().uri(uri)
+                            .retrieve()
+                            .toBodilessEntity()
+                            .doOnSuccess(response -> latencies.record(System.nanoTime() - issued));
+                }).onErrorResume(error -> {
+                    errors.increment();
+                    return Mono.empty();
+                }), concurrency)
+                .blockLast();
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return new Report(uri, concurrency, latencies.count(), errors.sum(), elapsed,
+                latencies.percentile(50), latencies.percentile(99), latencies.percentile(99.9), latencies.max(),
+                eventLoops.utilisation(elapsed));
+    }
+
+    @Override
+    public void close() {
+        connections.dispose();
+        loops.dispose();
+    }
+
+    /*
+     * Tiempo de CPU de los hilos de event loop del servidor durante la prueba, entre el tiempo de pared
+     * por hilo: 1.0 es un event loop ocupado el 100% del tiempo (de media entre todos).
+     */
+    private static final class EventLoopCpu {
+        private final Map<Long, Long> startCpu;
+
+        private EventLoopCpu(Map<Long, Long> startCpu) {
+            this.startCpu = startCpu;
+        }
+
+        static EventLoopCpu start() {
+            return new EventLoopCpu(sample());
+        }
+
+        double utilisation(Duration elapsed) {
+            var end = sample();
+            long cpu = 0;
+            for (var entry : end.entrySet()) {
+                cpu += entry.getValue() - startCpu.getOrDefault(entry.getKey(), 0L);
+            }
+            return end.isEmpty() ? 0 : cpu / (double) (elapsed.toNanos() * end.size());
+        }
+
+        private static Map<Long, Long> sample() {
+            var threads = ManagementFactory.getThreadMXBean();
+            Map<Long, Long> cpu = new HashMap<>();
+            for (var info : threads.getThreadInfo(threads.getAllThreadIds())) {
+                if (info != null && info.getThreadName().startsWith(SERVER_LOOP_PREFIX)) {
+                    cpu.put(info.getThreadId(), Math.max(0, threads.getThreadCpuTime(info.getThreadId())));
+                }
+            }
+            return cpu;
+        }
+    }
+
+    static final class Report {
+        private final String uri;
+        private final int concurrency;
+        private final long completed;
+        private final long errors;
+        private final Duration elapsed;
+        private final long p50;
+        private final long p99;
+        private final long p999;
+        private final long max;
+        private final double eventLoopUtilisation;
+
+        Report(String uri, int concurrency, long completed, long errors, Duration elapsed,
+               long p50, long p99, long p999, long max, double eventLoopUtilisation) {
+            this.uri = uri;
+            this.concurrency = concurrency;
+            this.completed = completed;
+            this.errors = errors;
+            this.elapsed = elapsed;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+            this.eventLoopUtilisation = eventLoopUtilisation;
+        }
+
+        long completed() {
+            return completed;
+        }
+
+        long errors() {
+            return errors;
+        }
+
+        double requestsPerSecond() {
+            return completed / (elapsed.toNanos() / 1e9);
+        }
+
+        Duration p50() {
+            return Duration.ofNanos(p50);
+        }
+
+        Duration p99() {
+            return Duration.ofNanos(p99);
+        }
+
+        double eventLoopUtilisation() {
+            return eventLoopUtilisation;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s x%d: %d ok, %d errors, %.0f req/s, p50=%.1fms p99=%.1fms p999=%.1fms "
+                            + "max=%.1fms, event loops %.0f%%",
+                    uri, concurrency, completed, errors, requestsPerSecond(), p50 / 1e6, p99 / 1e6, p999 / 1e6,
+                    max / 1e6, eventLoopUtilisation * 100);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.playground.web;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Carga contra el servidor Netty embebido. Los reports se imprimen para comparar operadores; las aserciones solo
+ * comprueban lo que no depende de la maquina: sin errores, latencia acotada y event loops sin saturar con el
+ * backend TIMER (no bloquea).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "playground.backend.latency=" + PlaygroundLoadTest.LATENCY_MS + "ms")
+class PlaygroundLoadTest {
+
+    static final int LATENCY_MS = 20;
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 64);
+    private static final int REQUESTS = 2_000;
+
+    @LocalServerPort
+    private int port;
+
+    private LoadGenerator load;
+
+    @BeforeEach
+    void setUp() {
+        load = LoadGenerator.create(port, CONCURRENCY);
+        //calentamiento: conexiones abiertas y JIT
+        load.run("/integers/1", 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        load.close();
+    }
+
+    @Test
+    void integerEndpointKeepsAllClientsInFlight() {
+        var report = load.run("/integers/1", REQUESTS);
+        System.out.println(report);
+        assertEquals(REQUESTS, report.completed());
+        assertEquals(0, report.errors());
+        assertTrue(report.p50().compareTo(Duration.ofMillis(LATENCY_MS)) >= 0, report.toString());
+        //de una en una serian ~50 req/s; con los clientes en vuelo a la vez el limite pasa a ser la CPU
+        assertTrue(report.requestsPerSecond() > 4.0 * 1000 / LATENCY_MS, report.toString());
+        assertTrue(report.eventLoopUtilisation() < 0.9, report.toString());
+    }
+
+    @Test
+    void zipOffloadVariants() {
+        for (var offload : new String[]{"none", "subscribeOn", "publishOn"}) {
+            var report = load.run("/zip/1/2?offload=" + offload, REQUESTS / 2);
+            System.out.println(report);
+            assertEquals(0, report.errors());
+            //cada cadena son 3 llamadas seguidas, las dos cadenas a la vez
+            assertTrue(report.p50().compareTo(Duration.ofMillis(LATENCY_MS * 3)) >= 0, report.toString());
+        }
+    }
+
+    @Test
+    void fanOutVariants() {
+        for (var uri : new String[]{"/fan-out?size=32", "/fan-out?size=32&concurrency=4", "/fan-out?size=32&parallel"}) {
+            var report = load.run(uri, REQUESTS / 4);
+            System.out.println(report);
+            assertEquals(0, report.errors());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.playground.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "playground.backend.latency=10ms")
+class PlaygroundRouterTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Test
+    void integerReturnsTheRequestedNumber() {
+        client.get().uri("/integers/7").exchange()
+                .expectStatus().isOk()
+                .expectBody(Integer.class).isEqualTo(7);
+    }
+
+    @Test
+    void zipReturnsTheLastValueOfEachChain() {
+        for (var offload : new String[]{"none", "subscribeOn", "publishOn"}) {
+            client.get().uri("/zip/1/2?offload={offload}", offload).exchange()
+                    .expectStatus().isOk()
+                    .expectBody().json("[111, 222]");
+        }
+    }
+
+    @Test
+    void fanOutReturnsEveryValue() {
+        client.get().uri("/fan-out?size=6").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(6);
+        client.get().uri("/fan-out?size=6&parallel").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(6);
+    }
+
+    @Test
+    void invalidParametersAreBadRequests() {
+        client.get().uri("/integers/one").exchange().expectStatus().isBadRequest();
+        client.get().uri("/zip/1/2?offload=elastic").exchange().expectStatus().isBadRequest();
+        client.get().uri("/fan-out?size=-1").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void metricsReportsEachEndpoint() {
+        client.get().uri("/integers/1").exchange().expectStatus().isOk();
+        client.get().uri("/metrics").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).value(body -> assertTrue(body.contains("integers"), body));
+    }
+}
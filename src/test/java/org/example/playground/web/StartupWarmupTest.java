@@ -0,0 +1,45 @@
+package org.example.playground.web;
+
+import org.example.playground.backend.SimulatedBackend;
+import org.example.playground.metrics.PipelineMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "playground.warmup.iterations=20")
+class StartupWarmupTest {
+
+    @Autowired
+    private StartupWarmup warmup;
+
+    @Autowired
+    private SimulatedBackend backend;
+
+    @Autowired
+    private PipelineMetrics metrics;
+
+    @Test
+    void warmsEveryEndpointPipelineBeforeTraffic() {
+        var report = warmup.report();
+
+        assertFalse(report.timedOut(), report.toString());
+        for (var name : new String[]{"integers", "zip-none", "zip-subscribeOn", "zip-publishOn", "fan-out",
+                "fan-out-parallel", "fan-out-stream", "json", "http"}) {
+            var stage = report.stage(name).orElseThrow(() -> new AssertionError(name + " missing: " + report));
+            assertEquals(20, stage.runs(), name);
+            assertEquals(0, stage.errors(), name);
+        }
+    }
+
+    @Test
+    void servedMetricsDoNotSeeTheWarmup() {
+        assertEquals(0, backend.roundTrips());
+        //las etapas ya estan registradas, pero sin ninguna suscripcion
+        assertFalse(metrics.report().isEmpty());
+        metrics.report().forEach(stage -> assertEquals(0, stage.subscriptions(), stage.toString()));
+    }
+}